@@ -0,0 +1,71 @@
+package org.pgstyle.talesclicker.benchmark;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pgstyle.talesclicker.module.captcha.CaptchaCapture;
+import org.pgstyle.talesclicker.module.captcha.ConvolutionMask;
+import org.pgstyle.talesclicker.module.captcha.FullCapture;
+
+/**
+ * Benchmark of the captcha preprocessing {@link CaptchaCapture#fromImage} and
+ * the recognition {@link ConvolutionMask#convolution} on the captchas of the
+ * samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaptchaBenchmark {
+
+    private List<BufferedImage> areas;
+    private List<BufferedImage> captchas;
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        this.areas = new ArrayList<>();
+        this.captchas = new ArrayList<>();
+        for (BufferedImage sample : Fixtures.samples()) {
+            Point offset = FullCapture.fromImage(sample).findOffset();
+            // the captcha area of the dialog, as cut by the full capture
+            this.areas.add(sample.getSubimage(offset.x + 155, offset.y + 78, 75, 50));
+            this.captchas.add(CaptchaCapture.fromImage(this.areas.get(this.areas.size() - 1)).getImage());
+        }
+    }
+
+    private int next() {
+        this.index = (this.index + 1) % this.areas.size();
+        return this.index;
+    }
+
+    @Benchmark
+    public CaptchaCapture fromImage() {
+        return CaptchaCapture.fromImage(this.areas.get(this.next()));
+    }
+
+    @Benchmark
+    public float[][] convolution() {
+        return ConvolutionMask.convolution(this.captchas.get(this.next()));
+    }
+
+}
@@ -0,0 +1,72 @@
+package org.pgstyle.talesclicker.benchmark;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pgstyle.talesclicker.imagedb.Capture;
+import org.pgstyle.talesclicker.imagedb.Stencil;
+import org.pgstyle.talesclicker.module.captcha.FullCapture;
+
+/**
+ * Benchmark of {@link Capture#getPointsOffset(Stencil)} on the sample and the
+ * synthetic screenshots, for a stencil in the screenshot and for a stencil
+ * not in the screenshot (the whole screenshot is searched).
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CaptureBenchmark {
+
+    @Param({"SAMPLE", "FHD", "UHD"})
+    public Fixtures.Screen screen;
+
+    private List<BufferedImage> screens;
+    private int index;
+
+    @Setup
+    public void setup() throws IOException {
+        this.screens = Fixtures.screens(this.screen, Fixtures.samples(), 20L);
+        for (BufferedImage image : this.screens) {
+            if (Objects.isNull(FullCapture.fromImage(image).getPointsOffset(Stencil.CAPTCHA_STENCIL))) {
+                throw new IllegalStateException("captcha dialog not found in fixture");
+            }
+        }
+    }
+
+    private BufferedImage next() {
+        this.index = (this.index + 1) % this.screens.size();
+        return this.screens.get(this.index);
+    }
+
+    @Benchmark
+    public Point getPointsOffset() {
+        return FullCapture.fromImage(this.next()).getPointsOffset(Stencil.CAPTCHA_STENCIL);
+    }
+
+    @Benchmark
+    public Point getPointsOffsetMissing() {
+        return FullCapture.fromImage(this.next()).getPointsOffset(Stencil.ERROR_STENCIL);
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.pgstyle.talesclicker.benchmark;
+
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+import javax.imageio.ImageIO;
+
+import org.pgstyle.talesclicker.module.captcha.FullCapture;
+
+/**
+ * The {@code Fixtures} provides the screenshots of the benchmarks. The samples
+ * are the labelled captcha screenshots under the {@code imagedb} directory of
+ * the project (or the directory in the system property
+ * {@code benchmark.imagedb}), and the synthetic screenshots are noisy screens
+ * of a standard size with the captcha dialog of a sample pasted at a random
+ * offset. All random choices are seeded, such that the fixtures are the same
+ * in every run.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class Fixtures {
+
+    /** Size of the captcha dialog area pasted into the synthetic screens. */
+    private static final int DIALOG_WIDTH = 490;
+    private static final int DIALOG_HEIGHT = 300;
+    /** Number of synthetic screenshots, each 4K screenshot takes 32 MiB. */
+    private static final int SYNTHETIC = 4;
+
+    /** The screens of the benchmarks. */
+    public enum Screen {
+        /** The original sample screenshot. */
+        SAMPLE(0, 0),
+        /** A full-HD screen. */
+        FHD(1920, 1080),
+        /** A 4K screen. */
+        UHD(3840, 2160);
+
+        Screen(int width, int height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        private final int width;
+        private final int height;
+
+    }
+
+    /**
+     * Load the labelled captcha samples, the name of a sample is the captcha
+     * digits separated with a comma.
+     *
+     * @return the samples in the order of their name
+     * @throws IOException if failed to read a sample
+     * @throws IllegalStateException if there is no sample
+     */
+    public static List<BufferedImage> samples() throws IOException {
+        File directory = new File(System.getProperty("benchmark.imagedb", "imagedb"));
+        File[] files = directory.listFiles((d, name) -> name.matches("\\d,\\d\\.png"));
+        if (Objects.isNull(files) || files.length == 0) {
+            throw new IllegalStateException("no captcha sample in " + directory.getAbsolutePath());
+        }
+        Arrays.sort(files);
+        List<BufferedImage> samples = new ArrayList<>();
+        for (File file : files) {
+            samples.add(Fixtures.packed(ImageIO.read(file)));
+        }
+        return samples;
+    }
+
+    /**
+     * Create the screenshots of a screen from the samples.
+     *
+     * @param screen the screen
+     * @param samples the samples
+     * @param seed the seed of the random choices
+     * @return the samples, or the synthetic screenshots of randomly chosen
+     *         samples
+     */
+    public static List<BufferedImage> screens(Screen screen, List<BufferedImage> samples, long seed) {
+        if (screen == Screen.SAMPLE) {
+            return samples;
+        }
+        Random random = new Random(seed);
+        List<BufferedImage> screens = new ArrayList<>();
+        for (int i = 0; i < Fixtures.SYNTHETIC; i++) {
+            screens.add(Fixtures.paste(samples.get(random.nextInt(samples.size())), screen.width, screen.height, random));
+        }
+        return screens;
+    }
+
+    private static BufferedImage paste(BufferedImage sample, int width, int height, Random random) {
+        Point offset = FullCapture.fromImage(sample).findOffset();
+        if (Objects.isNull(offset)) {
+            throw new IllegalStateException("no captcha dialog in sample");
+        }
+        BufferedImage dialog = sample.getSubimage(offset.x, offset.y,
+                                                  Math.min(Fixtures.DIALOG_WIDTH, sample.getWidth() - offset.x),
+                                                  Math.min(Fixtures.DIALOG_HEIGHT, sample.getHeight() - offset.y));
+        BufferedImage screen = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        // blocky noise as the background of the other windows
+        int[] row = new int[width];
+        for (int y = 0; y < height; y += 8) {
+            for (int x = 0; x < width; x++) {
+                row[x] = x % 8 == 0 ? random.nextInt(0x1000000) : row[x - 1];
+            }
+            for (int j = y; j < Math.min(y + 8, height); j++) {
+                screen.setRGB(0, j, width, 1, row, 0, width);
+            }
+        }
+        Graphics2D graphics = screen.createGraphics();
+        graphics.drawImage(dialog, random.nextInt(width - dialog.getWidth()), random.nextInt(height - dialog.getHeight()), null);
+        graphics.dispose();
+        return screen;
+    }
+
+    /**
+     * Convert an image into packed RGB, like the screenshot of the
+     * {@code Robot}.
+     *
+     * @param image the image
+     * @return the packed image
+     */
+    private static BufferedImage packed(BufferedImage image) {
+        BufferedImage packed = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = packed.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return packed;
+    }
+
+    private Fixtures() {}
+
+}
@@ -0,0 +1,100 @@
+package org.pgstyle.talesclicker.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pgstyle.talesclicker.application.AppUtils;
+
+/**
+ * Compare the boxed {@link AppUtils#nestedLoop} with the primitive loops of
+ * {@link AppUtils}. The loop bodies are called through megamorphic call sites,
+ * the loops are exercised with several loop bodies before the measurement,
+ * such that the loop bodies are not inlined and the escape analysis cannot
+ * remove the boxing of the counters. Run with {@code -prof gc} to compare the
+ * allocation rate.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@SuppressWarnings("deprecation")
+public class LoopBenchmark {
+
+    private static final int WIDTH = 256;
+    private static final int HEIGHT = 256;
+
+    private int[] pixels;
+
+    @Setup
+    public void setup() {
+        this.pixels = new int[LoopBenchmark.WIDTH * LoopBenchmark.HEIGHT];
+        for (int i = 0; i < this.pixels.length; i++) {
+            this.pixels[i] = i * 0x9e3779b9;
+        }
+        // pollute the type profile of the loop bodies
+        long[] sink = new long[1];
+        for (int n = 0; n < 2000; n++) {
+            AppUtils.nestedLoop(0, 4, 0, 4, (y, x) -> sink[0] += y);
+            AppUtils.nestedLoop(0, 4, 0, 4, (y, x) -> sink[0] ^= x);
+            AppUtils.nestedLoop(0, 4, 0, 4, (y, x) -> sink[0] -= y * x);
+            AppUtils.loop(0, 4, 0, 4, (y, x) -> sink[0] += y);
+            AppUtils.loop(0, 4, 0, 4, (y, x) -> sink[0] ^= x);
+            AppUtils.loop(0, 4, 0, 4, (y, x) -> sink[0] -= y * x);
+            AppUtils.rowLoop(0, 4, 0, 4, (y, from, to) -> sink[0] += y);
+            AppUtils.rowLoop(0, 4, 0, 4, (y, from, to) -> sink[0] ^= to);
+            AppUtils.rowLoop(0, 4, 0, 4, (y, from, to) -> sink[0] -= y * from);
+        }
+    }
+
+    @Benchmark
+    public long boxedNestedLoop() {
+        long[] sum = new long[1];
+        AppUtils.nestedLoop(0, LoopBenchmark.HEIGHT, 0, LoopBenchmark.WIDTH,
+                            (y, x) -> sum[0] += this.pixels[y * LoopBenchmark.WIDTH + x]);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long primitiveLoop() {
+        long[] sum = new long[1];
+        AppUtils.loop(0, LoopBenchmark.HEIGHT, 0, LoopBenchmark.WIDTH,
+                      (y, x) -> sum[0] += this.pixels[y * LoopBenchmark.WIDTH + x]);
+        return sum[0];
+    }
+
+    @Benchmark
+    public long rowLoop() {
+        long[] sum = new long[1];
+        AppUtils.rowLoop(0, LoopBenchmark.HEIGHT, 0, LoopBenchmark.WIDTH, (y, from, to) -> {
+            long row = 0;
+            for (int x = from; x < to; x++) {
+                row += this.pixels[y * LoopBenchmark.WIDTH + x];
+            }
+            sum[0] += row;
+        });
+        return sum[0];
+    }
+
+    @Benchmark
+    public long tiledLoop() {
+        long[] sum = new long[1];
+        AppUtils.tiledLoop(0, LoopBenchmark.HEIGHT, 0, LoopBenchmark.WIDTH, 32,
+                           (y, x) -> sum[0] += this.pixels[y * LoopBenchmark.WIDTH + x]);
+        return sum[0];
+    }
+
+}
@@ -0,0 +1,95 @@
+package org.pgstyle.talesclicker.benchmark;
+
+import java.awt.Dimension;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pgstyle.talesclicker.action.Actions;
+import org.pgstyle.talesclicker.action.ReplayScreen;
+import org.pgstyle.talesclicker.module.ModuleControl;
+import org.pgstyle.talesclicker.module.captcha.CaptchaModule;
+
+/**
+ * End-to-end benchmark of a {@link CaptchaModule#execute()} tick on a
+ * {@link ReplayScreen}, each tick captures a new frame, finds the dialogs and
+ * solves the captcha with the configured engines, and the clicks are recorded
+ * by the replay screen. The {@code DIALOG} scene shows a captcha dialog in
+ * every frame, the {@code IDLE} scene shows the same frame without a dialog,
+ * such that the unchanged-screen checks skip most dialog searches. The frame
+ * bus shares no frame between the ticks, and the logging is disabled.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Dapplication.log.enable=false", "-Dapplication.log.level=ERROR",
+                                  "-Dapplication.log.captcha=false", "-Dapplication.action.capture.interval=0"})
+public class ModuleBenchmark {
+
+    /** The scenes of the replay. */
+    public enum Scene {
+        /** A captcha dialog in every frame. */
+        DIALOG,
+        /** The same frame without a dialog. */
+        IDLE;
+    }
+
+    @Param({"SAMPLE", "FHD"})
+    public Fixtures.Screen screen;
+
+    @Param({"DIALOG", "IDLE"})
+    public Scene scene;
+
+    private ReplayScreen replay;
+    private CaptchaModule module;
+
+    @Setup
+    public void setup() throws IOException {
+        List<BufferedImage> screens = Fixtures.screens(this.screen, Fixtures.samples(), 24L);
+        if (this.scene == Scene.DIALOG) {
+            this.replay = ReplayScreen.of(screens);
+        }
+        else {
+            BufferedImage blank = new BufferedImage(screens.get(0).getWidth(), screens.get(0).getHeight(), BufferedImage.TYPE_INT_RGB);
+            this.replay = ReplayScreen.of(new Dimension(blank.getWidth(), blank.getHeight()), 1, i -> blank);
+        }
+        // each trial runs in a new fork, the screen is installed before the
+        // first action
+        Actions.install(this.replay);
+        this.module = new CaptchaModule();
+        if (!this.module.initialise(null, new String[0])) {
+            throw new IllegalStateException("failed to initialise captcha module");
+        }
+    }
+
+    @Benchmark
+    public ModuleControl execute() {
+        return this.module.execute();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        System.out.printf("%n%d frames replayed, %d clicks recorded%n", this.replay.getCaptured(), this.replay.getClicks().size());
+        this.module.finalise(null);
+    }
+
+}
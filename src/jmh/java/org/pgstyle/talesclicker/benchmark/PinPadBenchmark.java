@@ -0,0 +1,64 @@
+package org.pgstyle.talesclicker.benchmark;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.pgstyle.talesclicker.module.captcha.FullCapture;
+import org.pgstyle.talesclicker.module.captcha.PinPadCapture;
+
+/**
+ * Benchmark of {@link PinPadCapture#findNumber(int)} on the pinpads of the
+ * samples, each invocation finds the next digit on the next pinpad.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.AverageTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PinPadBenchmark {
+
+    private List<BufferedImage> pinpads;
+    private int index;
+    private int digit;
+
+    @Setup
+    public void setup() throws IOException {
+        this.pinpads = new ArrayList<>();
+        for (BufferedImage sample : Fixtures.samples()) {
+            PinPadCapture pinpad = FullCapture.fromImage(sample).getPinPadCapture();
+            for (int i = 0; i < 10; i++) {
+                if (Objects.isNull(pinpad.findNumber(i))) {
+                    throw new IllegalStateException("button " + i + " not found in fixture");
+                }
+            }
+            this.pinpads.add(pinpad.getImage());
+        }
+    }
+
+    @Benchmark
+    public Point findNumber() {
+        this.index = (this.index + 1) % this.pinpads.size();
+        this.digit = (this.digit + 1) % 10;
+        return PinPadCapture.fromImage(this.pinpads.get(this.index)).findNumber(this.digit);
+    }
+
+}
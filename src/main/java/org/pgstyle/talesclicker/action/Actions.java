@@ -1,39 +1,96 @@
 package org.pgstyle.talesclicker.action;
 
 import java.awt.AWTException;
-import java.awt.Robot;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Objects;
 
 import org.pgstyle.talesclicker.application.Application;
 import org.pgstyle.talesclicker.application.Application.Level;
+import org.pgstyle.talesclicker.application.Configuration;
 
 /**
  * Robot actions, all robot activities should be perform via action provides by
- * this class.
+ * this class. The actions are performed on the screen configured by the
+ * {@code application.action.screen} property, {@code ROBOT} for the desktop,
+ * or {@code REPLAY <directory>} for replaying the PNG screenshots in a
+ * directory, unless another screen is installed before the first action.
  *
  * @since 1.0
  * @author PGKan
  */
 public final class Actions {
 
-    private static final Robot ROBOT;
-    private static final Capturer CAPTURER;
-    private static final Clicker CLICKER;
-    private static final Idler IDLER;
-    private static final Typer TYPER;
+    private static Screen screen;
 
-    static {
-        // all action performer should shared and synchronously use a robot object
+    /**
+     * The action performers, created on the first use of any action.
+     */
+    private static final class Performers {
+
+        private static final Screen SCREEN = Actions.screen();
+        private static final Capturer CAPTURER = new Capturer(SCREEN);
+        private static final FrameBus FRAME_BUS = new FrameBus(CAPTURER);
+        private static final Clicker CLICKER = new Clicker(SCREEN);
+        private static final Idler IDLER = new Idler(SCREEN);
+        private static final Typer TYPER = new Typer(SCREEN);
+
+        private Performers() {}
+
+    }
+
+    /**
+     * Install the screen of the actions, such as a {@link ReplayScreen} for
+     * running the modules offline. The screen must be installed before the
+     * first action.
+     *
+     * @param screen the screen
+     * @throws IllegalStateException if a screen is already in use
+     */
+    public static synchronized void install(Screen screen) {
+        if (Objects.nonNull(Actions.screen)) {
+            throw new IllegalStateException("screen already in use");
+        }
+        Actions.screen = Objects.requireNonNull(screen, "screen == null");
+    }
+
+    private static synchronized Screen screen() {
+        if (Objects.isNull(Actions.screen)) {
+            Actions.screen = Actions.create(Configuration.getConfig().getScreen());
+        }
+        return Actions.screen;
+    }
+
+    private static Screen create(String config) {
+        String[] parts = config.trim().split("\\s+", 2);
         try {
-            ROBOT = new Robot();
+            if ("REPLAY".equalsIgnoreCase(parts[0]) && parts.length > 1) {
+                Application.log(Level.INFO, "replay screen from %s", parts[1]);
+                return ReplayScreen.fromDirectory(Paths.get(parts[1]));
+            }
+            if (!"ROBOT".equalsIgnoreCase(parts[0])) {
+                Application.log(Level.WARN, "unknown screen %s, use robot", config);
+            }
+            // all action performer should shared and synchronously use a robot object
+            return new RobotScreen();
         } catch (AWTException e) {
             Application.log(Level.FATAL, "failed to create robot: %s", e);
             e.printStackTrace();
             throw new IllegalStateException("no windows toolkit", e);
+        } catch (IOException | IllegalArgumentException e) {
+            Application.log(Level.FATAL, "failed to load replay: %s", e);
+            e.printStackTrace();
+            throw new IllegalStateException("no replay screen", e);
         }
-        CAPTURER = new Capturer(ROBOT);
-        CLICKER = new Clicker(ROBOT);
-        IDLER = new Idler(ROBOT);
-        TYPER = new Typer(ROBOT);
+    }
+
+    /**
+     * Get the screen of the actions.
+     *
+     * @return the screen
+     */
+    public static Screen getScreen() {
+        return Performers.SCREEN;
     }
 
     /**
@@ -42,7 +99,16 @@ public final class Actions {
      * @return the capturer
      */
     public static Capturer getCapturer() {
-        return Actions.CAPTURER;
+        return Performers.CAPTURER;
+    }
+
+    /**
+     * Get the shared screenshot provider.
+     *
+     * @return the frame bus
+     */
+    public static FrameBus getFrameBus() {
+        return Performers.FRAME_BUS;
     }
 
     /**
@@ -51,7 +117,7 @@ public final class Actions {
      * @return the clicker
      */
     public static Clicker getClicker() {
-        return Actions.CLICKER;
+        return Performers.CLICKER;
     }
 
     /**
@@ -60,7 +126,7 @@ public final class Actions {
      * @return the idler
      */
     public static Idler getIdler() {
-        return Actions.IDLER;
+        return Performers.IDLER;
     }
 
     /**
@@ -69,7 +135,7 @@ public final class Actions {
      * @return the typer
      */
     public static Typer getTyper() {
-        return Actions.TYPER;
+        return Performers.TYPER;
     }
 
     private Actions() {}
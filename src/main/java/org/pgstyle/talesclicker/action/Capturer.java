@@ -1,10 +1,11 @@
 package org.pgstyle.talesclicker.action;
 
-import java.awt.MouseInfo;
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.awt.Robot;
 import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.pgstyle.talesclicker.application.Application;
 import org.pgstyle.talesclicker.application.Application.Level;
@@ -18,18 +19,68 @@ import org.pgstyle.talesclicker.application.Configuration;
  */
 public final class Capturer {
 
-    Capturer(Robot robot) {
-        this.robot = robot;
-        this.defaultArea = Configuration.getConfig().getCaptureArea();
+    Capturer(Screen screen) {
+        this.screen = screen;
+        this.defaultArea = Configuration.getConfig().getCaptureArea(screen.getSize());
+        this.start = System.nanoTime();
+        this.captures = new AtomicLong();
+        this.bytes = new AtomicLong();
     }
 
-    private final Robot robot;
+    private final Screen screen;
     private final int[] defaultArea;
+    private final long start;
+    private final AtomicLong captures;
+    private final AtomicLong bytes;
+
+    /**
+     * Get the default capture area.
+     *
+     * @return the area in screen coordinates
+     */
+    public Rectangle getArea() {
+        return new Rectangle(this.defaultArea[0], this.defaultArea[1], this.defaultArea[2], this.defaultArea[3]);
+    }
 
     public BufferedImage capture() {
         return this.capture(defaultArea[0], defaultArea[1], defaultArea[2], defaultArea[3]);
     }
 
+    /**
+     * Check if the screenshots are captured into an existing image without a
+     * new capture.
+     *
+     * @return {@code true} if the screen captures in place
+     * @see Screen#isCapturingInPlace()
+     */
+    boolean isCapturingInPlace() {
+        return this.screen.isCapturingInPlace();
+    }
+
+    /**
+     * Take a screenshot of the default capture area into an existing image.
+     *
+     * @param target the image of the size of the default capture area
+     * @return the target image
+     */
+    public BufferedImage capture(BufferedImage target) {
+        Rectangle area = this.getArea();
+        if (target.getWidth() != area.width || target.getHeight() != area.height) {
+            throw new IllegalArgumentException("target size mismatch, " + target.getWidth() + "x" + target.getHeight());
+        }
+        synchronized (this.screen) {
+            Application.log(Level.DEBUG, "action.capture %s into buffer", area);
+            Point original = this.screen.getPointer();
+            // move cursor to buttom-right of the capture area
+            this.screen.mouseMove(area.x + area.width, area.y + area.height);
+            this.screen.capture(area, target);
+            // revert the cursor position
+            this.screen.mouseMove(original.x, original.y);
+            this.count(area);
+            return target;
+        }
+    }
+
     /**
      * Take a screenshot of the specified area.
      *
@@ -43,18 +94,69 @@ public final class Capturer {
         // Since cursor need to move out of the capture area before taking
         // screenshot, the capture action is required to synchronise with other
         // actions.
-        synchronized (this.robot) {
+        synchronized (this.screen) {
             Rectangle area = new Rectangle(x, y, width, height);
             Application.log(Level.DEBUG, "action.capture %s", area);
-            Point original = MouseInfo.getPointerInfo().getLocation();
+            Point original = this.screen.getPointer();
             // Move cursor to buttom-right of the capture area, such that the
             // cursor body is outside of the area.
-            this.robot.mouseMove(x + width, y + height);
-            BufferedImage capture = this.robot.createScreenCapture(area);
+            this.screen.mouseMove(x + width, y + height);
+            BufferedImage capture = this.screen.capture(area).get(0);
             // revert the cursor position
-            this.robot.mouseMove(original.x, original.y);
+            this.screen.mouseMove(original.x, original.y);
+            this.count(area);
             return capture;
         }
     }
 
+    /**
+     * Take screenshots of several small areas, such as the known bounds of a
+     * dialog, the cursor is moved out of all areas once for all screenshots.
+     *
+     * @param regions the areas in screen coordinates
+     * @return the captured images, in the order of the areas
+     */
+    public List<BufferedImage> capture(Rectangle... regions) {
+        if (regions.length == 0) {
+            return new ArrayList<>();
+        }
+        Rectangle union = new Rectangle(regions[0]);
+        for (Rectangle region : regions) {
+            union.add(region);
+        }
+        synchronized (this.screen) {
+            Application.log(Level.DEBUG, "action.capture %d regions in %s", regions.length, union);
+            Point original = this.screen.getPointer();
+            // move cursor to buttom-right of the union of the areas
+            this.screen.mouseMove(union.x + union.width, union.y + union.height);
+            // the areas are captured in a single call of the screen, but not
+            // necessarily at the same moment
+            List<BufferedImage> captures = this.screen.capture(regions);
+            for (Rectangle region : regions) {
+                this.count(region);
+            }
+            // revert the cursor position
+            this.screen.mouseMove(original.x, original.y);
+            return captures;
+        }
+    }
+
+    private void count(Rectangle area) {
+        this.captures.incrementAndGet();
+        // screenshots are packed into an integer per pixel
+        this.bytes.addAndGet(4l * area.width * area.height);
+    }
+
+    /**
+     * Get the counters in text.
+     *
+     * @return the counter text
+     */
+    public String statistics() {
+        double seconds = Math.max((System.nanoTime() - this.start) / 1e9, 1e-3);
+        long bytes = this.bytes.get();
+        return String.format("captured %d areas, %.1f MiB in total, %.1f KiB/s",
+                             this.captures.get(), bytes / 1048576.0, bytes / 1024.0 / seconds);
+    }
+
 }
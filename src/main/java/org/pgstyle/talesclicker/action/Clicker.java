@@ -1,7 +1,6 @@
 package org.pgstyle.talesclicker.action;
 
 import java.awt.Point;
-import java.awt.Robot;
 import java.awt.event.InputEvent;
 import java.util.function.BiConsumer;
 
@@ -17,24 +16,24 @@ import org.pgstyle.talesclicker.application.Configuration;
  */
 public final class Clicker {
 
-    Clicker(Robot robot) {
-        this.robot = robot;
+    Clicker(Screen screen) {
+        this.screen = screen;
         int[] timing = Configuration.getConfig().getClickTiming();
         this.moveDelay = timing[0];
         this.clickDelay = timing[1];
         this.actionDelay = timing[2];
-        action = (r, p) -> {
-            r.mouseMove(p.x, p.y);
+        action = (s, p) -> {
+            s.mouseMove(p.x, p.y);
             Actions.getIdler().idle(this.moveDelay);
-            r.mousePress(InputEvent.BUTTON1_DOWN_MASK);
+            s.mousePress(InputEvent.BUTTON1_DOWN_MASK);
             Actions.getIdler().idle(this.clickDelay);
-            r.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
+            s.mouseRelease(InputEvent.BUTTON1_DOWN_MASK);
             Actions.getIdler().idle(this.actionDelay);
         };
     }
 
-    private final Robot robot;
-    private final BiConsumer<Robot, Point> action;
+    private final Screen screen;
+    private final BiConsumer<Screen, Point> action;
     private final int moveDelay;
     private final int clickDelay;
     private final int actionDelay;
@@ -45,11 +44,11 @@ public final class Clicker {
      * @param point the location to be moved to
      */
     public void click(Point point) {
-        synchronized (this.robot) {
+        synchronized (this.screen) {
             Application.log(Level.DEBUG, "action.click %s", point);
             // move cursor to clicking position, press down mouse button,
             // and then release mouse button
-            this.action.accept(this.robot, point);
+            this.action.accept(this.screen, point);
         }
     }
 
@@ -0,0 +1,166 @@
+package org.pgstyle.talesclicker.action;
+
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+import org.pgstyle.talesclicker.imagedb.PixelView;
+
+/**
+ * A screenshot of the {@link FrameBus}. The same frame is handed to every
+ * module requesting a screenshot within the capture interval, so the image of
+ * a frame must not be modified. Every frame handed out is a lease on the
+ * screenshot buffer, the consumer must {@link #release()} the frame when done.
+ * After all leases are released, the frame drops its screenshot, and the
+ * buffer is returned to the pool for another frame.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class Frame {
+
+    /** Size of the square tiles of the tile hashes. */
+    static final int TILE = 64;
+
+    Frame(BufferedImage image, FramePool pool, long sequence, long timestamp, long nanoTime) {
+        this.image = image;
+        this.pool = pool;
+        this.width = image.getWidth();
+        this.height = image.getHeight();
+        this.leases = 1;
+        this.sequence = sequence;
+        this.timestamp = timestamp;
+        this.nanoTime = nanoTime;
+    }
+
+    private BufferedImage image;
+    private final FramePool pool;
+    private final int width;
+    private final int height;
+    private int leases;
+    private final long sequence;
+    private final long timestamp;
+    private final long nanoTime;
+    private int[] hashes;
+
+    /**
+     * Get the screenshot of this frame, the image is shared and must not be
+     * modified, and must not be used after releasing the frame.
+     *
+     * @return the screenshot
+     * @throws IllegalStateException if the frame is released
+     */
+    public synchronized BufferedImage getImage() {
+        this.check();
+        return this.image;
+    }
+
+    /**
+     * Take another lease of this frame.
+     *
+     * @return this frame
+     * @throws IllegalStateException if the frame is released
+     */
+    synchronized Frame retain() {
+        this.check();
+        this.leases++;
+        return this;
+    }
+
+    /**
+     * Release a lease of this frame, the screenshot buffer returns to the pool
+     * when the last lease is released.
+     *
+     * @throws IllegalStateException if the frame is already released
+     */
+    public synchronized void release() {
+        this.check();
+        if (--this.leases == 0) {
+            this.pool.release(this.image);
+            this.image = null;
+        }
+    }
+
+    private void check() {
+        if (this.leases <= 0) {
+            throw new IllegalStateException("frame #" + this.sequence + " released");
+        }
+    }
+
+    /**
+     * Get the sequence number of this frame, frames are numbered in the order
+     * of capturing.
+     *
+     * @return the sequence number
+     */
+    public long getSequence() {
+        return this.sequence;
+    }
+
+    /**
+     * Get the time of capturing this frame.
+     *
+     * @return the time in milliseconds since the epoch
+     */
+    public long getTimestamp() {
+        return this.timestamp;
+    }
+
+    /**
+     * Get the time elapsed since capturing this frame.
+     *
+     * @return the age in milliseconds
+     */
+    public long getAge() {
+        return (System.nanoTime() - this.nanoTime) / 1000000;
+    }
+
+    long getNanoTime() {
+        return this.nanoTime;
+    }
+
+    /**
+     * Get the number of tile columns.
+     *
+     * @return the number of tile columns
+     */
+    int getColumns() {
+        return (this.width + Frame.TILE - 1) / Frame.TILE;
+    }
+
+    /**
+     * Get the number of tile rows.
+     *
+     * @return the number of tile rows
+     */
+    int getRows() {
+        return (this.height + Frame.TILE - 1) / Frame.TILE;
+    }
+
+    /**
+     * Get the hashes of the tiles of this frame in row-major order, the hashes
+     * are calculated upon the first request, and are kept after releasing the
+     * frame.
+     *
+     * @return the tile hashes
+     * @throws IllegalStateException if the frame is released before the
+     *                               first request
+     */
+    synchronized int[] getTileHashes() {
+        if (Objects.isNull(this.hashes)) {
+            this.check();
+            PixelView view = PixelView.of(this.image);
+            int columns = this.getColumns();
+            int[] hashes = new int[columns * this.getRows()];
+            for (int y = 0; y < view.getHeight(); y++) {
+                int row = y / Frame.TILE * columns;
+                for (int x = 0; x < view.getWidth(); x++) {
+                    int tile = row + x / Frame.TILE;
+                    hashes[tile] = 31 * hashes[tile] + view.getRGB(x, y);
+                }
+            }
+            this.hashes = hashes;
+        }
+        return this.hashes;
+    }
+
+}
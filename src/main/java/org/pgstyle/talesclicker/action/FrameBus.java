@@ -0,0 +1,88 @@
+package org.pgstyle.talesclicker.action;
+
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Objects;
+
+import org.pgstyle.talesclicker.application.Application;
+import org.pgstyle.talesclicker.application.Application.Level;
+import org.pgstyle.talesclicker.application.Configuration;
+
+/**
+ * The {@code FrameBus} shares the screenshot of the default capture area among
+ * the modules. A screenshot is captured at most once per capture interval,
+ * every module requesting a frame within the interval receives the same
+ * frame, such that the modules do not move the cursor and hold the robot for
+ * their own screenshot. The bus holds a lease of the last frame until the
+ * next capture replaces it. The screenshots are captured into the buffers of
+ * a pool, every frame received must be released by the module when done.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class FrameBus {
+
+    FrameBus(Capturer capturer) {
+        this.capturer = capturer;
+        this.interval = Configuration.getConfig().getCaptureInterval();
+        this.rescan = Configuration.getConfig().getCaptureRescan();
+        Rectangle area = capturer.getArea();
+        this.pool = new FramePool(area.width, area.height, Configuration.getConfig().getCapturePool(), Configuration.getConfig().getCapturePoolLeak());
+    }
+
+    private final Capturer capturer;
+    private final long interval;
+    private final int rescan;
+    private final FramePool pool;
+    private Frame frame;
+    private long requests;
+    private long captures;
+
+    /**
+     * Get a lease of the frame of the current capture interval, a new
+     * screenshot is captured if the last frame is older than the interval.
+     * The lease must be released with {@link Frame#release()}.
+     *
+     * @return the frame
+     */
+    public synchronized Frame frame() {
+        this.requests++;
+        long now = System.nanoTime();
+        if (Objects.nonNull(this.frame) && now - this.frame.getNanoTime() < this.interval * 1000000) {
+            Application.log(Level.DEBUG, "action.frame shared frame #%d, %d ms old", this.frame.getSequence(), this.frame.getAge());
+            return this.frame.retain();
+        }
+        // release the lease of the bus before capturing, such that the buffer
+        // of the last frame can be reused if no module still holds it
+        if (Objects.nonNull(this.frame)) {
+            this.frame.release();
+            this.frame = null;
+        }
+        BufferedImage image = this.pool.capture(this.capturer);
+        this.frame = new Frame(image, this.pool, this.captures++, System.currentTimeMillis(), now);
+        return this.frame.retain();
+    }
+
+    /**
+     * Create a gate for a consumer to find the changes between the frames it
+     * has seen, with the configured interval of full rescans.
+     *
+     * @return a frame gate
+     */
+    public FrameGate gate() {
+        return new FrameGate(this.rescan);
+    }
+
+    /**
+     * Get the counters in text.
+     *
+     * @return the counter text
+     */
+    public synchronized String statistics() {
+        return String.format("captured %d frames for %d requests (%.1f%% shared), interval=%d ms, %s",
+                             this.captures, this.requests,
+                             this.requests == 0 ? 0.0 : 100.0 * (this.requests - this.captures) / this.requests, this.interval,
+                             this.pool.statistics());
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.pgstyle.talesclicker.action;
+
+/**
+ * The {@code FrameChange} tells how many tiles of a {@link Frame} changed
+ * since the last frame seen by a {@link FrameGate}. A consumer can skip the
+ * frame if nothing changed.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class FrameChange {
+
+    FrameChange(long sequence, int dirty, int tiles, boolean full) {
+        this.sequence = sequence;
+        this.dirty = dirty;
+        this.tiles = tiles;
+        this.full = full;
+    }
+
+    private final long sequence;
+    private final int dirty;
+    private final int tiles;
+    private final boolean full;
+
+    /**
+     * Check if no tile changed.
+     *
+     * @return {@code true} if no tile changed; or {@code false} otherwise
+     */
+    public boolean isUnchanged() {
+        return this.dirty == 0;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("frame #%d, %d of %d tiles dirty%s", this.sequence, this.dirty, this.tiles, this.full ? " (full)" : "");
+    }
+
+}
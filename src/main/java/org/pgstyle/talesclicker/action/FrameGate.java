@@ -0,0 +1,62 @@
+package org.pgstyle.talesclicker.action;
+
+import java.util.Objects;
+
+/**
+ * The {@code FrameGate} compares each frame seen by a consumer with the last
+ * frame it has seen, by the tile hashes of the frames. Every few frames, or if
+ * the frames are not comparable, all tiles are reported dirty to force a full
+ * rescan, such that a missed change is never kept for long.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class FrameGate {
+
+    /**
+     * Create a frame gate.
+     *
+     * @param rescan the number of frames between the forced full rescans, a
+     *               non-positive number forces a full rescan on every frame
+     */
+    FrameGate(int rescan) {
+        this.rescan = rescan;
+    }
+
+    private final int rescan;
+    // tile hashes of the last frame, the frame itself is not kept such that
+    // its screenshot can be reclaimed
+    private int[] hashes;
+    private int columns;
+    private int rows;
+    private int frames;
+
+    /**
+     * Compare a frame with the last frame seen by this gate.
+     *
+     * @param frame the frame
+     * @return the change of the frame
+     */
+    public synchronized FrameChange check(Frame frame) {
+        int[] hashes = frame.getTileHashes();
+        int dirty = 0;
+        boolean full = Objects.isNull(this.hashes) || this.frames >= this.rescan
+                    || this.columns != frame.getColumns() || this.rows != frame.getRows();
+        if (full) {
+            dirty = hashes.length;
+            this.frames = 0;
+        }
+        else {
+            int[] previous = this.hashes;
+            for (int i = 0; i < hashes.length; i++) {
+                dirty += hashes[i] != previous[i] ? 1 : 0;
+            }
+        }
+        this.frames++;
+        this.hashes = hashes;
+        this.columns = frame.getColumns();
+        this.rows = frame.getRows();
+        return new FrameChange(frame.getSequence(), dirty, hashes.length, full);
+    }
+
+}
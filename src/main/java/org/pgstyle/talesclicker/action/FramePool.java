@@ -0,0 +1,159 @@
+package org.pgstyle.talesclicker.action;
+
+import java.awt.image.BufferedImage;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.WeakHashMap;
+
+import org.pgstyle.talesclicker.application.Application;
+import org.pgstyle.talesclicker.application.Application.Level;
+
+/**
+ * The {@code FramePool} keeps the screenshot buffers of the {@link FrameBus}
+ * for reuse. A buffer is leased to a frame upon capturing, and returns to the
+ * pool when all leases of the frame are released. If every buffer is leased,
+ * a new buffer is allocated and dropped upon release. A screen not capturing
+ * in place, such as the desktop of a robot, allocates every screenshot anyway,
+ * so its screenshots are taken as is without a buffer of the pool. A pool of
+ * no buffer takes the screenshots as is on every screen. The screenshot of a
+ * frame, pooled or not, leased longer than the leak threshold is reported
+ * once as a suspected leak.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class FramePool {
+
+    FramePool(int width, int height, int capacity, long leak) {
+        this.width = width;
+        this.height = height;
+        this.leak = leak;
+        this.buffers = new BufferedImage[capacity];
+        this.leases = new WeakHashMap<>();
+        this.leaks = Collections.newSetFromMap(new WeakHashMap<>());
+    }
+
+    private final int width;
+    private final int height;
+    private final long leak;
+    // the buffers created, a buffer is idle if it is not leased
+    private final BufferedImage[] buffers;
+    // the lease time of the leased screenshots, a leaked screenshot not of the
+    // pool is forgotten after the frame is collected
+    private final Map<BufferedImage, Long> leases;
+    private final Set<BufferedImage> leaks;
+    private long acquires;
+    private long allocations;
+
+    /**
+     * Take a screenshot with the capturer into a leased buffer, or lease the
+     * screenshot of the capturer as is if the screen does not capture in place
+     * or the pool has no buffer.
+     *
+     * @param capturer the capturer
+     * @return the screenshot
+     */
+    BufferedImage capture(Capturer capturer) {
+        if (this.buffers.length == 0 || !capturer.isCapturingInPlace()) {
+            return this.lease(capturer.capture());
+        }
+        BufferedImage image = this.acquire();
+        try {
+            return capturer.capture(image);
+        } catch (RuntimeException e) {
+            this.release(image);
+            throw e;
+        }
+    }
+
+    /**
+     * Lease a screenshot not of the pool.
+     *
+     * @param image the screenshot
+     * @return the screenshot
+     */
+    private synchronized BufferedImage lease(BufferedImage image) {
+        this.acquires++;
+        this.allocations++;
+        this.audit();
+        this.leases.put(image, System.nanoTime());
+        return image;
+    }
+
+    /**
+     * Lease a buffer of the pool, or a new buffer if every buffer is leased.
+     *
+     * @return the buffer
+     */
+    synchronized BufferedImage acquire() {
+        this.acquires++;
+        this.audit();
+        for (int i = 0; i < this.buffers.length; i++) {
+            if (Objects.isNull(this.buffers[i])) {
+                this.buffers[i] = this.create();
+            }
+            if (!this.leases.containsKey(this.buffers[i])) {
+                this.leases.put(this.buffers[i], System.nanoTime());
+                return this.buffers[i];
+            }
+        }
+        this.allocations++;
+        if (this.buffers.length > 0) {
+            Application.log(Level.WARN, "frame pool exhausted, %s", this.statistics());
+        }
+        BufferedImage buffer = this.create();
+        this.leases.put(buffer, System.nanoTime());
+        return buffer;
+    }
+
+    /**
+     * Return a screenshot to the pool, a screenshot not of the pool is
+     * dropped.
+     *
+     * @param buffer the screenshot
+     */
+    synchronized void release(BufferedImage buffer) {
+        this.leases.remove(buffer);
+        this.leaks.remove(buffer);
+    }
+
+    private BufferedImage create() {
+        return new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Report the screenshots leased longer than the leak threshold, a
+     * screenshot is reported once.
+     */
+    private void audit() {
+        long now = System.nanoTime();
+        this.leases.forEach((buffer, lease) -> {
+            long age = (now - lease) / 1000000;
+            if (age >= this.leak && this.leaks.add(buffer)) {
+                Application.log(Level.WARN, "frame leased for %d ms, suspected leak of an unreleased frame", age);
+            }
+        });
+    }
+
+    /**
+     * Get the counters in text.
+     *
+     * @return the counter text
+     */
+    synchronized String statistics() {
+        long now = System.nanoTime();
+        long oldest = 0;
+        int pooled = 0;
+        for (long lease : this.leases.values()) {
+            oldest = Math.max(oldest, (now - lease) / 1000000);
+        }
+        for (BufferedImage buffer : this.buffers) {
+            pooled += this.leases.containsKey(buffer) ? 1 : 0;
+        }
+        return String.format("%d frames leased (%d/%d pool buffers), oldest lease %d ms, %d suspected leaks, %d of %d frames unpooled",
+                             this.leases.size(), pooled, this.buffers.length, oldest, this.leaks.size(), this.allocations, this.acquires);
+    }
+
+}
@@ -1,6 +1,5 @@
 package org.pgstyle.talesclicker.action;
 
-import java.awt.Robot;
 import java.util.function.BiConsumer;
 
 /**
@@ -11,11 +10,11 @@ import java.util.function.BiConsumer;
  */
 public final class Idler {
 
-    Idler(Robot robot) {
-        this.robot = robot;
-        action = (r, t) -> {
+    Idler(Screen screen) {
+        this.screen = screen;
+        action = (s, t) -> {
             try {
-                Thread.sleep(t);
+                s.idle(t);
             }
             catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
@@ -24,8 +23,8 @@ public final class Idler {
         };
     }
 
-    private final Robot robot;
-    private final BiConsumer<Robot, Long> action;
+    private final Screen screen;
+    private final BiConsumer<Screen, Long> action;
 
     /**
      * Idle for the specific timeout in milliseconds.
@@ -33,7 +32,7 @@ public final class Idler {
      * @param timeout the waiting timeout
      */
     public void idle(long timeout) {
-        this.action.accept(this.robot, timeout);
+        this.action.accept(this.screen, timeout);
     }
 
 }
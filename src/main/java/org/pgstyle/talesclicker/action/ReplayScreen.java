@@ -0,0 +1,292 @@
+package org.pgstyle.talesclicker.action;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.pgstyle.talesclicker.imagedb.PixelView;
+
+/**
+ * The {@code ReplayScreen} is an offline screen showing a sequence of frames,
+ * such as the screenshots replayed from a directory or the frames generated
+ * in memory. Each capture shows the next frame to all of its areas, the
+ * sequence is repeated after the last frame. The frames in memory are
+ * converted into packed RGB, such that the captures into a reused buffer copy
+ * the pixels without any allocation. The clicks and the key presses received
+ * are recorded instead of performed, and the idling between the events is
+ * skipped, such that the actions can run on a headless machine at full speed.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class ReplayScreen implements Screen {
+
+    /** A click received by the screen. */
+    public static final class Click {
+
+        private Click(Point point, int buttons, long frame) {
+            this.point = point;
+            this.buttons = buttons;
+            this.frame = frame;
+        }
+
+        private final Point point;
+        private final int buttons;
+        private final long frame;
+
+        /**
+         * Get the position of the click.
+         *
+         * @return the position in screen coordinates
+         */
+        public Point getPoint() {
+            return new Point(this.point);
+        }
+
+        /**
+         * Get the pressed buttons of the click.
+         *
+         * @return the button mask
+         */
+        public int getButtons() {
+            return this.buttons;
+        }
+
+        /**
+         * Get the number of frames captured before the click.
+         *
+         * @return the number of frames
+         */
+        public long getFrame() {
+            return this.frame;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("click(%d,%d) after frame %d", this.point.x, this.point.y, this.frame);
+        }
+
+    }
+
+    /**
+     * Create a replay screen of the PNG images in a directory, the images are
+     * shown in the order of their file name.
+     *
+     * @param directory the directory of the images
+     * @return the replay screen
+     * @throws IOException if failed to read an image
+     * @throws IllegalArgumentException if there is no image in the directory
+     */
+    public static ReplayScreen fromDirectory(Path directory) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> files = Files.list(directory)) {
+            paths = files.filter(p -> p.getFileName().toString().toLowerCase().endsWith(".png")).sorted().collect(Collectors.toList());
+        }
+        List<BufferedImage> frames = new ArrayList<>();
+        for (Path path : paths) {
+            frames.add(ImageIO.read(path.toFile()));
+        }
+        return ReplayScreen.of(frames);
+    }
+
+    /**
+     * Create a replay screen of frames in memory.
+     *
+     * @param frames the frames, all frames must have the same size
+     * @return the replay screen
+     * @throws IllegalArgumentException if there is no frame or the frames
+     *                                  are of different sizes
+     */
+    public static ReplayScreen of(List<BufferedImage> frames) {
+        if (frames.isEmpty()) {
+            throw new IllegalArgumentException("no frame to replay");
+        }
+        Dimension size = new Dimension(frames.get(0).getWidth(), frames.get(0).getHeight());
+        for (BufferedImage frame : frames) {
+            if (frame.getWidth() != size.width || frame.getHeight() != size.height) {
+                throw new IllegalArgumentException("frame size mismatch, " + frame.getWidth() + "x" + frame.getHeight());
+            }
+        }
+        List<BufferedImage> packed = new ArrayList<>();
+        for (BufferedImage frame : frames) {
+            packed.add(ReplayScreen.packed(frame));
+        }
+        return new ReplayScreen(size, frames.size(), packed::get);
+    }
+
+    private static BufferedImage packed(BufferedImage image) {
+        if (image.getType() == BufferedImage.TYPE_INT_RGB) {
+            return image;
+        }
+        BufferedImage packed = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = packed.createGraphics();
+        graphics.drawImage(image, 0, 0, null);
+        graphics.dispose();
+        return packed;
+    }
+
+    /**
+     * Create a replay screen of generated frames.
+     *
+     * @param size the size of the frames
+     * @param length the number of frames in the sequence
+     * @param generator the generator of the frame of an index
+     * @return the replay screen
+     */
+    public static ReplayScreen of(Dimension size, int length, IntFunction<BufferedImage> generator) {
+        return new ReplayScreen(new Dimension(size), length, generator);
+    }
+
+    private ReplayScreen(Dimension size, int length, IntFunction<BufferedImage> frames) {
+        this.size = size;
+        this.length = length;
+        this.frames = frames;
+        this.pointer = new Point();
+        this.clicks = new ArrayList<>();
+        this.keys = new ArrayList<>();
+    }
+
+    private final Dimension size;
+    private final int length;
+    private final IntFunction<BufferedImage> frames;
+    private final Point pointer;
+    private final List<Click> clicks;
+    private final List<Integer> keys;
+    private long captured;
+
+    @Override
+    public Dimension getSize() {
+        return new Dimension(this.size);
+    }
+
+    private BufferedImage next() {
+        return this.frames.apply((int) (this.captured++ % this.length));
+    }
+
+    @Override
+    public synchronized List<BufferedImage> capture(Rectangle... areas) {
+        BufferedImage frame = this.next();
+        List<BufferedImage> captures = new ArrayList<>();
+        for (Rectangle area : areas) {
+            // copy into a new packed image like the screenshot of a robot,
+            // the area outside of the frame is black
+            BufferedImage capture = new BufferedImage(area.width, area.height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = capture.createGraphics();
+            graphics.drawImage(frame, -area.x, -area.y, null);
+            graphics.dispose();
+            captures.add(capture);
+        }
+        return captures;
+    }
+
+    @Override
+    public synchronized void capture(Rectangle area, BufferedImage target) {
+        if (target.getType() != BufferedImage.TYPE_INT_RGB || Objects.nonNull(target.getRaster().getParent())
+            || target.getWidth() != area.width || target.getHeight() != area.height) {
+            Screen.super.capture(area, target);
+            return;
+        }
+        PixelView frame = PixelView.of(this.next());
+        int[] pixels = ((DataBufferInt) target.getRaster().getDataBuffer()).getData();
+        for (int y = 0; y < area.height; y++) {
+            int sy = area.y + y;
+            for (int x = 0; x < area.width; x++) {
+                int sx = area.x + x;
+                // the area outside of the frame is black
+                boolean inside = sx >= 0 && sy >= 0 && sx < frame.getWidth() && sy < frame.getHeight();
+                pixels[y * area.width + x] = inside ? frame.getRGB(sx, sy) : 0;
+            }
+        }
+    }
+
+    @Override
+    public boolean isCapturingInPlace() {
+        return true;
+    }
+
+    @Override
+    public synchronized Point getPointer() {
+        return new Point(this.pointer);
+    }
+
+    @Override
+    public synchronized void mouseMove(int x, int y) {
+        this.pointer.setLocation(x, y);
+    }
+
+    @Override
+    public synchronized void mousePress(int buttons) {
+        this.clicks.add(new Click(new Point(this.pointer), buttons, this.captured));
+    }
+
+    @Override
+    public void mouseRelease(int buttons) {
+        // only the presses are recorded
+    }
+
+    @Override
+    public synchronized void keyPress(int keycode) {
+        this.keys.add(keycode);
+    }
+
+    @Override
+    public void keyRelease(int keycode) {
+        // only the presses are recorded
+    }
+
+    @Override
+    public void idle(long timeout) {
+        // no waiting in replay
+    }
+
+    /**
+     * Get the number of frames captured.
+     *
+     * @return the number of frames
+     */
+    public synchronized long getCaptured() {
+        return this.captured;
+    }
+
+    /**
+     * Get the clicks received.
+     *
+     * @return the clicks in the order of receiving
+     */
+    public synchronized List<Click> getClicks() {
+        return Collections.unmodifiableList(new ArrayList<>(this.clicks));
+    }
+
+    /**
+     * Get the key codes of the key presses received.
+     *
+     * @return the key codes in the order of receiving
+     */
+    public synchronized List<Integer> getKeys() {
+        return Collections.unmodifiableList(new ArrayList<>(this.keys));
+    }
+
+    /**
+     * Clear the recorded clicks and key presses.
+     */
+    public synchronized void clear() {
+        this.clicks.clear();
+        this.keys.clear();
+    }
+
+}
@@ -0,0 +1,84 @@
+package org.pgstyle.talesclicker.action;
+
+import java.awt.AWTException;
+import java.awt.Dimension;
+import java.awt.MouseInfo;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.Robot;
+import java.awt.Toolkit;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The {@code RobotScreen} is the desktop screen controlled by a {@link Robot}.
+ * The robot returns every screenshot in a new image, the desktop cannot be
+ * captured into an existing buffer without a copy.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class RobotScreen implements Screen {
+
+    /**
+     * Create a screen of the desktop.
+     *
+     * @throws AWTException if the platform does not allow a robot
+     */
+    RobotScreen() throws AWTException {
+        this.robot = new Robot();
+    }
+
+    private final Robot robot;
+
+    @Override
+    public Dimension getSize() {
+        return Toolkit.getDefaultToolkit().getScreenSize();
+    }
+
+    @Override
+    public List<BufferedImage> capture(Rectangle... areas) {
+        List<BufferedImage> captures = new ArrayList<>();
+        for (Rectangle area : areas) {
+            captures.add(this.robot.createScreenCapture(area));
+        }
+        return captures;
+    }
+
+    @Override
+    public Point getPointer() {
+        return MouseInfo.getPointerInfo().getLocation();
+    }
+
+    @Override
+    public void mouseMove(int x, int y) {
+        this.robot.mouseMove(x, y);
+    }
+
+    @Override
+    public void mousePress(int buttons) {
+        this.robot.mousePress(buttons);
+    }
+
+    @Override
+    public void mouseRelease(int buttons) {
+        this.robot.mouseRelease(buttons);
+    }
+
+    @Override
+    public void keyPress(int keycode) {
+        this.robot.keyPress(keycode);
+    }
+
+    @Override
+    public void keyRelease(int keycode) {
+        this.robot.keyRelease(keycode);
+    }
+
+    @Override
+    public void idle(long timeout) throws InterruptedException {
+        Thread.sleep(timeout);
+    }
+
+}
@@ -0,0 +1,114 @@
+package org.pgstyle.talesclicker.action;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * The {@code Screen} is the source of the screenshots and the target of the
+ * pointer and key events of the actions. The actions synchronise on the
+ * screen, such that an action is never interleaved with another action.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public interface Screen {
+
+    /**
+     * Get the size of the screen.
+     *
+     * @return the size
+     */
+    Dimension getSize();
+
+    /**
+     * Take screenshots of areas. The desktop screen captures the areas one by
+     * one, such that the areas may show slightly different moments, a replay
+     * screen captures all areas from the same frame.
+     *
+     * @param areas the areas in screen coordinates
+     * @return the captured images, in the order of the areas
+     */
+    List<BufferedImage> capture(Rectangle... areas);
+
+    /**
+     * Take a screenshot of an area into an existing image, such as a reused
+     * buffer. The screenshot is copied from a new capture by default.
+     *
+     * @param area the area in screen coordinates
+     * @param target the image of the size of the area
+     * @see #isCapturingInPlace()
+     */
+    default void capture(Rectangle area, BufferedImage target) {
+        Graphics2D graphics = target.createGraphics();
+        graphics.drawImage(this.capture(area).get(0), 0, 0, null);
+        graphics.dispose();
+    }
+
+    /**
+     * Check if the screen captures into an existing image without a new
+     * capture. A screen copying from a new capture allocates the screenshot
+     * anyway, a reused buffer only adds a copy on such screen.
+     *
+     * @return {@code true} if the screen captures in place; or {@code false}
+     *         if the capture into an existing image copies from a new capture
+     */
+    default boolean isCapturingInPlace() {
+        return false;
+    }
+
+    /**
+     * Get the position of the pointer.
+     *
+     * @return the position
+     */
+    Point getPointer();
+
+    /**
+     * Move the pointer.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     */
+    void mouseMove(int x, int y);
+
+    /**
+     * Press mouse buttons.
+     *
+     * @param buttons the button mask
+     */
+    void mousePress(int buttons);
+
+    /**
+     * Release mouse buttons.
+     *
+     * @param buttons the button mask
+     */
+    void mouseRelease(int buttons);
+
+    /**
+     * Press a key.
+     *
+     * @param keycode the key code
+     */
+    void keyPress(int keycode);
+
+    /**
+     * Release a key.
+     *
+     * @param keycode the key code
+     */
+    void keyRelease(int keycode);
+
+    /**
+     * Wait between the events.
+     *
+     * @param timeout the waiting timeout in milliseconds
+     * @throws InterruptedException if the thread is interrupted
+     */
+    void idle(long timeout) throws InterruptedException;
+
+}
@@ -1,6 +1,5 @@
 package org.pgstyle.talesclicker.action;
 
-import java.awt.Robot;
 import java.awt.event.KeyEvent;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -19,23 +18,23 @@ import org.pgstyle.talesclicker.application.Configuration;
  */
 public final class Typer {
 
-    Typer(Robot robot) {
-        this.robot = robot;
+    Typer(Screen screen) {
+        this.screen = screen;
         int[] timing = Configuration.getConfig().getTypeTiming();
         this.pressDelay = timing[0];
         this.actionDelay = timing[1];
-        action = (r, k) -> {
+        action = (s, k) -> {
             Arrays.stream(k).forEach(c -> {
-                r.keyPress(c);
+                s.keyPress(c);
                 Actions.getIdler().idle(this.pressDelay);
             });
-            Arrays.stream(k).forEach(r::keyRelease);
+            Arrays.stream(k).forEach(s::keyRelease);
             Actions.getIdler().idle(this.actionDelay);
         };
     }
 
-    private final Robot robot;
-    private final BiConsumer<Robot, int[]> action;
+    private final Screen screen;
+    private final BiConsumer<Screen, int[]> action;
     private final int pressDelay;
     private final int actionDelay;
 
@@ -45,7 +44,7 @@ public final class Typer {
      * @param key the key to be typed
      */
     public void type(String key) {
-        synchronized (this.robot) {
+        synchronized (this.screen) {
             Application.log(Level.DEBUG, "action.type %s", key);
             String[] keys = key.toUpperCase().split("[+\\-]");
             List<Integer> codes = new ArrayList<>();
@@ -86,7 +85,7 @@ public final class Typer {
                     break;
                 }
             }
-            this.action.accept(this.robot, codes.stream().mapToInt(Integer::intValue).toArray());
+            this.action.accept(this.screen, codes.stream().mapToInt(Integer::intValue).toArray());
         }
     }
 
@@ -62,7 +62,10 @@ public final class AppUtils {
      * @param inner      start of inner loop counter
      * @param innerLimit exclusive limit of inner loop counter
      * @param action     the action to perform in the loop body
+     * @deprecated the loop counters are boxed in every iteration, use
+     *             {@link #loop(int, int, int, int, IntBiConsumer)} instead
      */
+    @Deprecated
     public static void nestedLoop(int outer, int outerLimit, int inner, int innerLimit,
             BiConsumer<Integer, Integer> action) {
         for (int o = outer; o < outerLimit; o++) {
@@ -72,6 +75,66 @@ public final class AppUtils {
         }
     }
 
+    /**
+     * 2-layer nested for-loop with primitive loop counters.
+     *
+     * @param outer      start of outer loop counter
+     * @param outerLimit exclusive limit of outer loop counter
+     * @param inner      start of inner loop counter
+     * @param innerLimit exclusive limit of inner loop counter
+     * @param action     the action to perform in the loop body
+     */
+    public static void loop(int outer, int outerLimit, int inner, int innerLimit, IntBiConsumer action) {
+        for (int o = outer; o < outerLimit; o++) {
+            for (int i = inner; i < innerLimit; i++) {
+                action.accept(o, i);
+            }
+        }
+    }
+
+    /**
+     * Row-wise for-loop, the action is performed once on the whole inner
+     * range of each outer loop counter, such that a row can be processed in
+     * bulk.
+     *
+     * @param outer      start of outer loop counter
+     * @param outerLimit exclusive limit of outer loop counter
+     * @param inner      start of inner range
+     * @param innerLimit exclusive limit of inner range
+     * @param action     the action to perform on each row
+     */
+    public static void rowLoop(int outer, int outerLimit, int inner, int innerLimit, IntRangeConsumer action) {
+        if (inner < innerLimit) {
+            for (int o = outer; o < outerLimit; o++) {
+                action.accept(o, inner, innerLimit);
+            }
+        }
+    }
+
+    /**
+     * 2-layer nested for-loop visiting square tiles one by one, the counters
+     * in a tile are visited in the order of {@link #loop(int, int, int, int,
+     * IntBiConsumer) loop}, tiles on the edges are truncated to the limits.
+     *
+     * @param outer      start of outer loop counter
+     * @param outerLimit exclusive limit of outer loop counter
+     * @param inner      start of inner loop counter
+     * @param innerLimit exclusive limit of inner loop counter
+     * @param tile       the size of a tile
+     * @param action     the action to perform in the loop body
+     * @throws IllegalArgumentException if the tile size is not positive
+     */
+    public static void tiledLoop(int outer, int outerLimit, int inner, int innerLimit, int tile, IntBiConsumer action) {
+        if (tile <= 0) {
+            throw new IllegalArgumentException("non-positive tile size: " + tile);
+        }
+        for (int to = outer; to < outerLimit; to += tile) {
+            for (int ti = inner; ti < innerLimit; ti += tile) {
+                AppUtils.loop(to, Math.min(to + tile, outerLimit), ti, Math.min(ti + tile, innerLimit), action);
+            }
+        }
+    }
+
     /**
      * Get current timestamp in {@link AppUtils#TS_FORMATTER} format.
      *
@@ -1,7 +1,6 @@
 package org.pgstyle.talesclicker.application;
 
 import java.awt.Dimension;
-import java.awt.Toolkit;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
@@ -43,6 +42,11 @@ public final class Configuration {
                 e.printStackTrace();
             }
         }
+        // system properties override the file, for the runs without a
+        // settings file, such as the offline benchmarks
+        System.getProperties().stringPropertyNames().stream()
+              .filter(name -> name.startsWith("application."))
+              .forEach(name -> properties.setProperty(name, System.getProperty(name)));
         return new Configuration(properties);
     }
 
@@ -120,16 +124,25 @@ public final class Configuration {
         return new int[] {Integer.parseInt(raw[0]), Integer.parseInt(raw[1])};
     }
 
+    /**
+     * Get the screen of the actions.
+     *
+     * @return the screen setting, {@code ROBOT} or {@code REPLAY <directory>}
+     */
+    public String getScreen() {
+        return this.properties.getProperty("application.action.screen", "ROBOT");
+    }
+
     /**
      * Get the capture area of capturing action.
      *
+     * @param dimension the size of the screen, for the full screen area
      * @return the area sequence
      */
-    public int[] getCaptureArea() {
+    public int[] getCaptureArea(Dimension dimension) {
         String raw = this.properties.getProperty("application.action.capture.area");
         int[] area;
         if ("FULL".equalsIgnoreCase(raw)) {
-            Dimension dimension = Toolkit.getDefaultToolkit().getScreenSize();
             area = new int[] {0, 0, dimension.width, dimension.height};
         }
         else {
@@ -138,6 +151,66 @@ public final class Configuration {
         return area;
     }
 
+    /**
+     * Get the interval of sharing a screen capture among the modules.
+     *
+     * @return the interval (millisecond)
+     */
+    public long getCaptureInterval() {
+        return Long.parseLong(this.properties.getProperty("application.action.capture.interval", "0"));
+    }
+
+    /**
+     * Get the number of unchanged-screen checks between the forced full
+     * rescans of a screen capture.
+     *
+     * @return the number of checks
+     */
+    public int getCaptureRescan() {
+        return Integer.parseInt(this.properties.getProperty("application.action.capture.rescan", "0"));
+    }
+
+    /**
+     * Get the number of reusable screen capture buffers shared among the
+     * modules. Only a screen capturing in place, such as a replay screen,
+     * captures into the buffers, the desktop screenshots are always new
+     * images and are taken as is.
+     *
+     * @return the number of buffers, {@code 0} for a new buffer per capture
+     */
+    public int getCapturePool() {
+        return Integer.parseInt(this.properties.getProperty("application.action.capture.pool", "0"));
+    }
+
+    /**
+     * Get the age of a lease of a shared screenshot to be reported as a
+     * suspected leak.
+     *
+     * @return the age (millisecond)
+     */
+    public long getCapturePoolLeak() {
+        return Long.parseLong(this.properties.getProperty("application.action.capture.pool.leak", "60000"));
+    }
+
+    /**
+     * Get the search mode of finding stencils in a screen capture.
+     *
+     * @return the search mode name
+     */
+    public String getCaptureSearch() {
+        return this.properties.getProperty("application.action.capture.search", "SEQUENTIAL").trim().toUpperCase();
+    }
+
+    /**
+     * Get the minimum pixel count of a screen capture to use the configured
+     * search mode, smaller captures are always searched sequentially.
+     *
+     * @return the pixel count threshold
+     */
+    public int getCaptureSearchThreshold() {
+        return Integer.parseInt(this.properties.getProperty("application.action.capture.search.threshold", "0"));
+    }
+
     /**
      * Check if the module is enabled.
      *
@@ -0,0 +1,21 @@
+package org.pgstyle.talesclicker.application;
+
+/**
+ * The {@code IntBiConsumer} is the loop body of the primitive loops of
+ * {@link AppUtils}, the loop counters are passed without boxing.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+@FunctionalInterface
+public interface IntBiConsumer {
+
+    /**
+     * Perform the loop body.
+     *
+     * @param outer the outer loop counter
+     * @param inner the inner loop counter
+     */
+    void accept(int outer, int inner);
+
+}
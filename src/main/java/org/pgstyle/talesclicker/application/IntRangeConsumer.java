@@ -0,0 +1,23 @@
+package org.pgstyle.talesclicker.application;
+
+/**
+ * The {@code IntRangeConsumer} is the loop body of the row-wise loop of
+ * {@link AppUtils}, it is called once for the whole inner range of each outer
+ * loop counter.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+@FunctionalInterface
+public interface IntRangeConsumer {
+
+    /**
+     * Perform the loop body on a row.
+     *
+     * @param outer the outer loop counter
+     * @param from  start of the inner range
+     * @param to    exclusive limit of the inner range
+     */
+    void accept(int outer, int from, int to);
+
+}
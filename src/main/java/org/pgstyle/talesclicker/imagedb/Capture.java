@@ -3,9 +3,10 @@ package org.pgstyle.talesclicker.imagedb;
 import java.awt.Color;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * Screen capture container with subpicture and point offset utility.
@@ -16,10 +17,41 @@ import java.util.Map;
 public class Capture {
 
     protected Capture(BufferedImage image) {
+        this(image, false);
+    }
+
+    /**
+     * Create a capture of an image, a region capture is cut at the exact
+     * bounds of a stencil found before, and the stencils are only matched at
+     * the origin of the region.
+     *
+     * @param image the image
+     * @param region {@code true} if the image is a region capture
+     */
+    protected Capture(BufferedImage image, boolean region) {
         this.image = image;
+        this.region = region;
+        this.located = new HashMap<>();
+    }
+
+    /**
+     * Create a capture sharing the underlying image, the pixel view and the
+     * tracked stencil offsets of another capture.
+     *
+     * @param capture the other capture
+     */
+    protected Capture(Capture capture) {
+        this.image = capture.image;
+        this.region = capture.region;
+        this.pixels = capture.getPixels();
+        this.located = capture.located;
     }
 
     private final BufferedImage image;
+    private final boolean region;
+    private PixelView pixels;
+    /** Tracked stencil offsets in this capture, {@code null} if not found. */
+    private final Map<Stencil, Point> located;
 
     /**
      * Get the underlying image.
@@ -40,34 +72,83 @@ public class Capture {
     }
 
     /**
-     * Find the specified point reference in the underlying image.
+     * Get the pixel view of the underlying image.
+     *
+     * @return a pixel view
+     */
+    public final synchronized PixelView getPixels() {
+        if (Objects.isNull(this.pixels)) {
+            this.pixels = PixelView.of(this.image);
+        }
+        return this.pixels;
+    }
+
+    /**
+     * Find the specified stencil in the underlying image, with the colour
+     * difference tolerance of the stencil.
+     *
+     * @param stencil the stencil
+     * @return the offset of the stencil; or {@code null} if the stencil does
+     *         not match in the underlying image
+     */
+    public Point getPointsOffset(Stencil stencil) {
+        return StencilMatcher.find(this.getPixels(), stencil);
+    }
+
+    /**
+     * Find the specified stencils in the underlying image in a single pass.
      *
-     * @param pointColors point reference
-     * @return the offset of the point reference; or {@code null} if the point
-     *         reference does not match in the underlying image
+     * @param stencils the stencils
+     * @return the offsets of the stencils found in the underlying image
+     * @see StencilScanner
      */
-    public Point getPointsOffset(Map<Point, Color> pointColors) {
-        return this.getPointsOffset(pointColors, 0);
+    public Map<Stencil, Point> getPointsOffsets(Stencil... stencils) {
+        return StencilScanner.of(stencils).scan(this.getPixels());
     }
 
-    public Point getPointsOffset(Map<Point, Color> pointColors, float delta) {
-        List<Point> sortedPoints = new ArrayList<>(pointColors.keySet());
-        sortedPoints.sort(Stencil.POINT_COMPARATOR);
-        for (int y = 0; y < this.getImage().getHeight(); y++) {
-            for (int x = 0; x < this.getImage().getWidth(); x++) {
-                boolean hit = true;
-                for (Point point : sortedPoints) {
-                    if (x + point.x >= this.getImage().getWidth() || y + point.y >= this.getImage().getHeight() || Capture.colourDifferent(pointColors.get(point), new Color(this.getImage().getRGB(x + point.x, y + point.y))) > delta) {
-                        hit = false;
-                        break;
-                    }
-                }
-                if (hit) {
-                    return new Point(x, y);
-                }
+    /**
+     * Find the specified stencil in the underlying image, starting from the
+     * last known offset of the stencil. The last known offsets are of
+     * captures of the full capture area, a region capture only matches the
+     * stencil at its origin, and leaves the last known offsets untouched. The
+     * result is kept with this capture, such that the stencil is searched only
+     * once.
+     *
+     * @param stencil the stencil
+     * @return the offset of the stencil; or {@code null} if the stencil does
+     *         not match in the underlying image
+     * @see OffsetTracker
+     */
+    public Point trackPointsOffset(Stencil stencil) {
+        return this.trackPointsOffsets(stencil).get(stencil);
+    }
+
+    /**
+     * Find the specified stencils in the underlying image, starting from the
+     * last known offset of each stencil, the stencils not found nearby are
+     * searched in a single pass. The last known offsets are of captures of the
+     * full capture area, a region capture only matches the stencils at its
+     * origin, and leaves the last known offsets untouched. The results are
+     * kept with this capture, such that each stencil is searched only once.
+     *
+     * @param stencils the stencils
+     * @return the offsets of the stencils found in the underlying image
+     * @see OffsetTracker
+     */
+    public Map<Stencil, Point> trackPointsOffsets(Stencil... stencils) {
+        synchronized (this.located) {
+            Stencil[] pending = Arrays.stream(stencils).filter(s -> !this.located.containsKey(s)).distinct().toArray(Stencil[]::new);
+            if (this.region) {
+                Arrays.stream(pending).forEach(s -> this.located.put(s, StencilMatcher.find(this.getPixels(), s, 0, 0, 1, 1)));
+            }
+            else if (pending.length > 0) {
+                Map<Stencil, Point> offsets = OffsetTracker.findAll(this.getPixels(), pending);
+                Arrays.stream(pending).forEach(s -> this.located.put(s, offsets.get(s)));
             }
+            Map<Stencil, Point> offsets = new HashMap<>();
+            Arrays.stream(stencils).filter(s -> Objects.nonNull(this.located.get(s))).forEach(s -> offsets.put(s, new Point(this.located.get(s))));
+            return offsets;
         }
-        return null;
     }
 
     public static float colourDifferent(Color color1, Color color2) {
@@ -0,0 +1,175 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Properties;
+import java.util.stream.IntStream;
+
+import javax.imageio.ImageIO;
+
+import org.pgstyle.talesclicker.application.AppUtils;
+import org.pgstyle.talesclicker.application.Application;
+import org.pgstyle.talesclicker.application.Application.Level;
+
+/**
+ * The {@code ColourHistogram} counts how often colours appear in screen
+ * captures. The colours are binned by the upper 4 bits of each channel, the
+ * histogram is used to rank the points of a stencil by how rarely their
+ * colours appear on screen. The histogram resource of the samples is created
+ * in the build by running this class as a program over the PNG screen
+ * captures under the {@code imagedb} directory of the project, the resource
+ * is not kept in the sources.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class ColourHistogram {
+
+    /**
+     * Holder of the histogram of the samples, the resource is loaded upon the
+     * first use, such that the program creating the resource never loads it.
+     */
+    private static final class Samples {
+
+        private static final ColourHistogram HISTOGRAM = ColourHistogram.load("/imagedb/samples.histogram");
+
+    }
+
+    /**
+     * Get the colour histogram of the representative screen capture samples.
+     *
+     * @return the colour histogram
+     */
+    public static ColourHistogram samples() {
+        return Samples.HISTOGRAM;
+    }
+
+    /**
+     * Count the colours of the PNG images in a directory and store the
+     * histogram into a file.
+     *
+     * @param args the path of the histogram file, and the directory of the
+     *             images
+     * @throws IOException if failed to read an image or store the histogram
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "samples.histogram");
+        File directory = new File(args.length > 1 ? args[1] : "imagedb");
+        File[] files = directory.listFiles((d, name) -> name.endsWith(".png"));
+        if (Objects.isNull(files) || files.length == 0) {
+            throw new IOException("no sample in " + directory.getAbsolutePath());
+        }
+        Arrays.sort(files);
+        PixelView[] views = new PixelView[files.length];
+        for (int i = 0; i < files.length; i++) {
+            views[i] = PixelView.of(ImageIO.read(files[i]));
+        }
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (Writer writer = Files.newBufferedWriter(path)) {
+            ColourHistogram.of(views).store(writer);
+        }
+    }
+
+    private static ColourHistogram load(String name) {
+        Properties list = new Properties();
+        try {
+            list.load(AppUtils.getResource(name));
+        } catch (IOException | IllegalArgumentException e) {
+            // without samples, all colours are equally rare
+            Application.log(Level.WARN, "failed to load colour histogram %s, %s", name, e);
+        }
+        long[] bins = new long[4096];
+        list.stringPropertyNames().forEach(k -> bins[Integer.parseInt(k, 16)] = Long.parseLong(list.getProperty(k)));
+        return new ColourHistogram(bins);
+    }
+
+    /**
+     * Count the colours of pixel views.
+     *
+     * @param views the pixel views
+     * @return the colour histogram
+     */
+    public static ColourHistogram of(PixelView... views) {
+        long[] bins = new long[4096];
+        for (PixelView view : views) {
+            for (int y = 0; y < view.getHeight(); y++) {
+                for (int x = 0; x < view.getWidth(); x++) {
+                    bins[ColourHistogram.bin(view.getRGB(x, y))]++;
+                }
+            }
+        }
+        return new ColourHistogram(bins);
+    }
+
+    /**
+     * Get the bin of a colour, the bin is the 4 most significant bits of each
+     * channel.
+     *
+     * @param rgb the RGB value
+     * @return the bin
+     */
+    static int bin(int rgb) {
+        return (rgb >> 12 & 0xf00) | (rgb >> 8 & 0xf0) | (rgb >> 4 & 0xf);
+    }
+
+    /**
+     * Get the bins of all colours which may match a colour within a channel
+     * tolerance.
+     *
+     * @param rgb the RGB value
+     * @param tolerance the greatest accepted channel difference
+     * @return the bins
+     */
+    static IntStream bins(int rgb, int tolerance) {
+        int t = Math.max(tolerance, 0);
+        int r = rgb >> 16 & 0xff;
+        int g = rgb >> 8 & 0xff;
+        int b = rgb & 0xff;
+        return IntStream.rangeClosed(Math.max(r - t, 0) >> 4, Math.min(r + t, 255) >> 4)
+                        .flatMap(i -> IntStream.rangeClosed(Math.max(g - t, 0) >> 4, Math.min(g + t, 255) >> 4)
+                                               .flatMap(j -> IntStream.rangeClosed(Math.max(b - t, 0) >> 4, Math.min(b + t, 255) >> 4)
+                                                                      .map(k -> i << 8 | j << 4 | k)));
+    }
+
+    private ColourHistogram(long[] bins) {
+        this.bins = bins;
+    }
+
+    private final long[] bins;
+
+    /**
+     * Count the pixels which may match a colour within a channel tolerance.
+     * Since the colours are binned, the count is an upper estimation.
+     *
+     * @param rgb the RGB value
+     * @param tolerance the greatest accepted channel difference
+     * @return the count of pixels
+     */
+    public long count(int rgb, int tolerance) {
+        return ColourHistogram.bins(rgb, tolerance).mapToLong(i -> this.bins[i]).sum();
+    }
+
+    /**
+     * Write this histogram in the format of the histogram resource.
+     *
+     * @param writer the target writer
+     */
+    public void store(Writer writer) {
+        PrintWriter printer = new PrintWriter(writer);
+        printer.println("# colour histogram, rgb444=count");
+        for (int i = 0; i < this.bins.length; i++) {
+            if (this.bins[i] > 0) {
+                printer.printf("%03x=%d%n", i, this.bins[i]);
+            }
+        }
+        printer.flush();
+    }
+
+}
@@ -0,0 +1,148 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.pgstyle.talesclicker.application.Application;
+import org.pgstyle.talesclicker.application.Application.Level;
+
+/**
+ * The {@code OffsetTracker} remembers the last known offset of each stencil
+ * in the screen captures. Since a dialog nearly always reappears at the same
+ * position, a stencil is first verified at its last known offset, then
+ * searched in a widening neighbourhood of that offset, and the whole capture
+ * is scanned only if the stencil is not found nearby.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class OffsetTracker {
+
+    /** Radii of the neighbourhoods searched around the last known offset. */
+    private static final int[] RADII = {4, 16, 64};
+
+    /** Last known offset of the stencils. */
+    private static final Map<Stencil, Point> OFFSETS = Collections.synchronizedMap(new WeakHashMap<>());
+
+    private static final AtomicLong HITS = new AtomicLong();
+    private static final AtomicLong NEAR_HITS = new AtomicLong();
+    private static final AtomicLong FULL_SCANS = new AtomicLong();
+
+    /**
+     * Find the stencil in the pixel view, starting from the last known offset
+     * of the stencil. The pixel view should always be a full screen capture
+     * of the same capture area.
+     *
+     * @param view the pixel view
+     * @param stencil the stencil
+     * @return the offset; or {@code null} if the stencil does not match in the
+     *         pixel view
+     */
+    static Point find(PixelView view, Stencil stencil) {
+        return OffsetTracker.findAll(view, stencil).get(stencil);
+    }
+
+    /**
+     * Find the stencils in the pixel view, starting from the last known offset
+     * of each stencil. The stencils not found around their last known offset
+     * are searched together in a single full scan. The pixel view should
+     * always be a full screen capture of the same capture area.
+     *
+     * @param view the pixel view
+     * @param stencils the stencils
+     * @return the offsets of the stencils found in the pixel view
+     */
+    static Map<Stencil, Point> findAll(PixelView view, Stencil... stencils) {
+        Map<Stencil, Point> offsets = new HashMap<>();
+        List<Stencil> missed = new ArrayList<>();
+        for (Stencil stencil : stencils) {
+            Point offset = OffsetTracker.findNear(view, stencil);
+            if (Objects.nonNull(offset)) {
+                offsets.put(stencil, offset);
+            }
+            else {
+                missed.add(stencil);
+            }
+        }
+        if (!missed.isEmpty()) {
+            Map<Stencil, Point> scanned = StencilScanner.of(missed.toArray(new Stencil[0])).scan(view);
+            OffsetTracker.FULL_SCANS.addAndGet(missed.size());
+            Application.log(Level.TRACE, "full scan for %d stencils, %s", missed.size(), OffsetTracker.statistics());
+            scanned.forEach((stencil, offset) -> {
+                OffsetTracker.OFFSETS.put(stencil, new Point(offset));
+                offsets.put(stencil, offset);
+            });
+        }
+        return offsets;
+    }
+
+    private static Point findNear(PixelView view, Stencil stencil) {
+        Point last = OffsetTracker.OFFSETS.get(stencil);
+        if (Objects.isNull(last)) {
+            return null;
+        }
+        Point offset = StencilMatcher.find(view, stencil, last.x, last.y, last.x + 1, last.y + 1);
+        if (Objects.nonNull(offset)) {
+            OffsetTracker.HITS.incrementAndGet();
+            return offset;
+        }
+        for (int radius : OffsetTracker.RADII) {
+            offset = StencilMatcher.find(view, stencil, last.x - radius, last.y - radius, last.x + radius + 1, last.y + radius + 1);
+            if (Objects.nonNull(offset)) {
+                OffsetTracker.NEAR_HITS.incrementAndGet();
+                OffsetTracker.OFFSETS.put(stencil, new Point(offset));
+                return offset;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Get the number of stencils found at their last known offset.
+     *
+     * @return the hit count
+     */
+    public static long getHits() {
+        return OffsetTracker.HITS.get();
+    }
+
+    /**
+     * Get the number of stencils found in the neighbourhood of their last
+     * known offset.
+     *
+     * @return the near hit count
+     */
+    public static long getNearHits() {
+        return OffsetTracker.NEAR_HITS.get();
+    }
+
+    /**
+     * Get the number of stencils searched by a full scan, that is the stencils
+     * not found around their last known offset, or without a last known
+     * offset.
+     *
+     * @return the miss count
+     */
+    public static long getMisses() {
+        return OffsetTracker.FULL_SCANS.get();
+    }
+
+    /**
+     * Get the counters in text.
+     *
+     * @return the counter text
+     */
+    public static String statistics() {
+        return String.format("hit=%d, near=%d, miss=%d", OffsetTracker.getHits(), OffsetTracker.getNearHits(), OffsetTracker.getMisses());
+    }
+
+    private OffsetTracker() {}
+
+}
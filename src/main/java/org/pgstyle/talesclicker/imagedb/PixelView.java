@@ -0,0 +1,116 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+
+/**
+ * The {@code PixelView} provides direct access to the packed RGB pixels of an
+ * image. Images backed by a {@link DataBufferInt} with a packed RGB layout
+ * (such as the screenshot taken by the {@code Robot}, and all of its sub-
+ * images) are accessed in place, other images are copied into a packed array
+ * upon the creation of the view.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class PixelView {
+
+    /**
+     * Create a view of the pixels of an image.
+     *
+     * @param image the image
+     * @return a pixel view
+     */
+    public static PixelView of(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        WritableRaster raster = image.getRaster();
+        if ((image.getType() == BufferedImage.TYPE_INT_RGB || image.getType() == BufferedImage.TYPE_INT_ARGB)
+            && raster.getDataBuffer() instanceof DataBufferInt
+            && raster.getSampleModel() instanceof SinglePixelPackedSampleModel) {
+            // share the underlying array, sub-images are addressed with the
+            // translation of the sample model of the child raster
+            DataBufferInt buffer = (DataBufferInt) raster.getDataBuffer();
+            int stride = ((SinglePixelPackedSampleModel) raster.getSampleModel()).getScanlineStride();
+            int offset = buffer.getOffset() - raster.getSampleModelTranslateY() * stride - raster.getSampleModelTranslateX();
+            return new PixelView(buffer.getData(), offset, stride, width, height);
+        }
+        // other image types are converted into packed RGB once
+        return new PixelView(image.getRGB(0, 0, width, height, null, 0, width), 0, width, width, height);
+    }
+
+    private PixelView(int[] data, int offset, int stride, int width, int height) {
+        this.data = data;
+        this.offset = offset;
+        this.stride = stride;
+        this.width = width;
+        this.height = height;
+    }
+
+    private final int[] data;
+    private final int offset;
+    private final int stride;
+    private final int width;
+    private final int height;
+
+    /**
+     * Get the width of the view.
+     *
+     * @return the width
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Get the height of the view.
+     *
+     * @return the height
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Get the RGB value of a pixel, the alpha channel is discarded.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     * @return the RGB value
+     */
+    public int getRGB(int x, int y) {
+        return this.data[this.offset + y * this.stride + x] & 0xffffff;
+    }
+
+    /**
+     * Get the index of a pixel in the underlying array.
+     *
+     * @param x the X coordinate
+     * @param y the Y coordinate
+     * @return the array index
+     */
+    int index(int x, int y) {
+        return this.offset + y * this.stride + x;
+    }
+
+    /**
+     * Get the underlying array, the array must not be modified.
+     *
+     * @return the packed pixel array
+     */
+    int[] data() {
+        return this.data;
+    }
+
+    /**
+     * Get the distance of vertically adjacent pixels in the underlying array.
+     *
+     * @return the scanline stride
+     */
+    int stride() {
+        return this.stride;
+    }
+
+}
@@ -0,0 +1,185 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import java.awt.Point;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.WeakHashMap;
+
+/**
+ * The {@code PyramidSearch} finds a {@link Stencil} by scanning a decimated
+ * level of a {@link PixelView}, the level is every {@code factor}-th pixel of
+ * every {@code factor}-th row of the view. The candidate offsets are divided
+ * into phases by their remainders of the factor, and each phase is keyed on
+ * a point of the stencil which falls onto the level for all offsets of the
+ * phase. A pixel of the level matching a key point is verified at full
+ * resolution with the whole stencil. Since every offset is reachable by its
+ * key point, the result is the same as a full resolution search, while only
+ * about {@code 1 / factor²} of the pixels are read. A phase without a key
+ * point is searched at full resolution, and the factor of each stencil is
+ * chosen to have the least expected cost.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class PyramidSearch {
+
+    /** Candidate decimation factors of the level. */
+    private static final int[] FACTORS = {2, 4, 8};
+
+    /** Compiled searches, a stencil is compiled only once. */
+    private static final Map<Stencil, PyramidSearch> COMPILED = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Find the first offset (in top-to-down, left-to-right order) of the
+     * stencil in the pixel view.
+     *
+     * @param view the pixel view
+     * @param stencil the stencil
+     * @return the offset; or {@code null} if the stencil does not match in the
+     *         pixel view
+     */
+    static Point find(PixelView view, Stencil stencil) {
+        return PyramidSearch.COMPILED.computeIfAbsent(stencil, PyramidSearch::new).search(view);
+    }
+
+    /**
+     * Select a key point for each phase of a factor, the first point (in the
+     * ranked order of the stencil) falling onto the level is selected.
+     *
+     * @param stencil the stencil
+     * @param factor the decimation factor
+     * @return the index of the key point of each phase; or {@code -1} for a
+     *         phase without key point
+     */
+    private static int[] keys(Stencil stencil, int factor) {
+        int[] keys = new int[factor * factor];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = -1;
+        }
+        for (int i = stencil.size() - 1; i >= 0; i--) {
+            keys[Math.floorMod(-stencil.getY(i), factor) * factor + Math.floorMod(-stencil.getX(i), factor)] = i;
+        }
+        return keys;
+    }
+
+    private PyramidSearch(Stencil stencil) {
+        this.stencil = stencil;
+        // the level costs 1 / factor² of a full search, and each phase
+        // without key point costs another 1 / factor²
+        int factor = 1;
+        int[] keys = {-1};
+        double cost = 1;
+        for (int f : PyramidSearch.FACTORS) {
+            int[] k = PyramidSearch.keys(stencil, f);
+            double c = (1.0 + Arrays.stream(k).filter(i -> i < 0).count()) / (f * f);
+            if (stencil.size() > 0 && c < cost) {
+                factor = f;
+                keys = k;
+                cost = c;
+            }
+        }
+        this.factor = factor;
+        this.keys = keys;
+        List<List<Integer>> table = StencilScanner.table();
+        for (int phase = 0; phase < keys.length; phase++) {
+            if (keys[phase] >= 0) {
+                StencilScanner.register(table, stencil.getColour(keys[phase]), stencil.getChannelTolerance(), phase);
+            }
+        }
+        this.table = StencilScanner.compile(table);
+        this.keyed = new boolean[this.table.length];
+        for (int bin = 0; bin < this.table.length; bin++) {
+            this.keyed[bin] = this.table[bin].length > 0;
+        }
+    }
+
+    private final Stencil stencil;
+    private final int factor;
+    private final int[] keys;
+    private final int[][] table;
+    // bins with any key point, most pixels of the level are rejected here
+    private final boolean[] keyed;
+
+    /**
+     * Find the first offset of the stencil in the pixel view.
+     *
+     * @param view the pixel view
+     * @return the offset; or {@code null} if the stencil does not match in the
+     *         pixel view
+     */
+    private Point search(PixelView view) {
+        if (this.factor == 1) {
+            return StencilMatcher.find(view, this.stencil, 0, 0, view.getWidth(), view.getHeight());
+        }
+        Point first = null;
+        for (int phase = 0; phase < this.keys.length; phase++) {
+            if (this.keys[phase] < 0) {
+                first = PyramidSearch.first(first, this.searchPhase(view, phase % this.factor, phase / this.factor));
+            }
+        }
+        return PyramidSearch.first(first, this.searchLevel(view, first));
+    }
+
+    /**
+     * Scan the level for the key points of all phases.
+     *
+     * @param view the pixel view
+     * @param bound the first offset found so far, offsets after the bound are
+     *              not searched
+     * @return the first offset found in the level; or {@code null} if no
+     *         offset before the bound matches
+     */
+    private Point searchLevel(PixelView view, Point bound) {
+        int tolerance = this.stencil.getChannelTolerance();
+        int[] data = view.data();
+        int reach = 0;
+        for (int key : this.keys) {
+            reach = key < 0 ? reach : Math.max(reach, this.stencil.getY(key));
+        }
+        Point first = bound;
+        for (int y = 0; y < view.getHeight() && (Objects.isNull(first) || y - reach <= first.y); y += this.factor) {
+            int index = view.index(0, y);
+            for (int x = 0; x < view.getWidth(); x += this.factor) {
+                int rgb = data[index + x];
+                int bin = ColourHistogram.bin(rgb);
+                if (!this.keyed[bin]) {
+                    continue;
+                }
+                for (int phase : this.table[bin]) {
+                    int key = this.keys[phase];
+                    int ox = x - this.stencil.getX(key);
+                    int oy = y - this.stencil.getY(key);
+                    if (StencilMatcher.matches(this.stencil.getColour(key), rgb, tolerance)
+                        && (Objects.isNull(first) || oy < first.y || oy == first.y && ox < first.x)) {
+                        first = PyramidSearch.first(first, StencilMatcher.find(view, this.stencil, ox, oy, ox + 1, oy + 1));
+                    }
+                }
+            }
+        }
+        return first;
+    }
+
+    /**
+     * Search the offsets of a phase without key point at full resolution.
+     *
+     * @param view the pixel view
+     * @param px the remainder of the X coordinate of the offsets
+     * @param py the remainder of the Y coordinate of the offsets
+     * @return the first offset of the phase; or {@code null} if no offset of
+     *         the phase matches
+     */
+    private Point searchPhase(PixelView view, int px, int py) {
+        return StencilMatcher.find(view, this.stencil, px, py, view.getWidth(), view.getHeight(), this.factor);
+    }
+
+    private static Point first(Point a, Point b) {
+        if (Objects.isNull(a) || Objects.isNull(b)) {
+            return Objects.isNull(a) ? b : a;
+        }
+        return a.y < b.y || a.y == b.y && a.x < b.x ? a : b;
+    }
+
+}
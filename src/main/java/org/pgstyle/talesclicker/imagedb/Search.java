@@ -0,0 +1,71 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.pgstyle.talesclicker.application.Application;
+import org.pgstyle.talesclicker.application.Application.Level;
+import org.pgstyle.talesclicker.application.Configuration;
+
+/**
+ * The {@code Search} holds the configured search mode of finding stencils in
+ * the whole area of a screen capture.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class Search {
+
+    /** The search modes of a full scan. */
+    enum Mode {
+        /** scan the capture row by row in a single thread */
+        SEQUENTIAL,
+        /** scan bands of rows concurrently on the shared fork-join pool */
+        PARALLEL,
+        /** scan a decimated level of the capture and verify at full resolution */
+        PYRAMID;
+    }
+
+    private static final Mode MODE;
+    private static final int THRESHOLD;
+
+    /** The least number of rows in a band of a parallel search. */
+    private static final int BAND_HEIGHT = 16;
+
+    static {
+        Mode mode;
+        try {
+            mode = Mode.valueOf(Configuration.getConfig().getCaptureSearch());
+        } catch (IllegalArgumentException e) {
+            Application.log(Level.WARN, "unknown search mode %s, use sequential search", Configuration.getConfig().getCaptureSearch());
+            mode = Mode.SEQUENTIAL;
+        }
+        MODE = mode;
+        THRESHOLD = Configuration.getConfig().getCaptureSearchThreshold();
+    }
+
+    /**
+     * Get the search mode for a pixel view, a view smaller than the configured
+     * threshold is always searched sequentially.
+     *
+     * @param view the pixel view
+     * @return the search mode
+     */
+    static Mode mode(PixelView view) {
+        return (long) view.getWidth() * view.getHeight() < Search.THRESHOLD ? Mode.SEQUENTIAL : Search.MODE;
+    }
+
+    /**
+     * Calculate the number of bands to split the rows into for a parallel
+     * search, there are a few more bands than the workers of the pool to
+     * balance the load.
+     *
+     * @param rows the number of rows
+     * @return the number of bands
+     */
+    static int bands(int rows) {
+        return Math.max(Math.min(ForkJoinPool.getCommonPoolParallelism() * 4, rows / Search.BAND_HEIGHT), 1);
+    }
+
+    private Search() {}
+
+}
@@ -2,60 +2,301 @@ package org.pgstyle.talesclicker.imagedb;
 
 import java.awt.Color;
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.Collections;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 import org.pgstyle.talesclicker.application.AppUtils;
 
 /**
- * Point references for finding point offset in a screen capture.
+ * Point references for finding point offset in a screen capture. A stencil is
+ * compiled once into sorted primitive arrays of point offsets and colours,
+ * such that matching a stencil requires no per-call setup. The points of a
+ * stencil never change, the only mutable state is a small cache of the array
+ * offsets of the points for each scanline stride searched.
  *
  * @since 0.2-dev
  * @author PGKan
  */
 public final class Stencil {
 
+    /** Number of scanline strides of which the array offsets are cached. */
+    private static final int STRIDES = 8;
+
+    /** This comparator can sort points in top-to-down, left-to-right order. */
+    public static final Comparator<Point> POINT_COMPARATOR = (a, b) -> a.y < b.y || (a.y == b.y && a.x < b.x) ? -1 : 1;
+
     /** Point reference of the captcha dialog. */
-    public static final Map<Point, Color> CAPTCHA_STENCIL = Collections.unmodifiableMap(Stencil.loadReference("/imagedb/captcha.list"));
+    public static final Stencil CAPTCHA_STENCIL = Stencil.loadReference("/imagedb/captcha.list").withTolerance(12f / 256).ranked(ColourHistogram.samples());
     /** Point reference of the error dialog. */
-    public static final Map<Point, Color> ERROR_STENCIL = Collections.unmodifiableMap(Stencil.loadReference("/imagedb/error.list"));
+    public static final Stencil ERROR_STENCIL = Stencil.loadReference("/imagedb/error.list").ranked(ColourHistogram.samples());
 
-    private static Map<Point, Color> loadReference(String name) {
+    private static Stencil loadReference(String name) {
         Properties list = new Properties();
         try {
             list.load(AppUtils.getResource(name));
         } catch (IOException | IllegalArgumentException e) {
             throw new IllegalArgumentException("unloadable reference: " + name, e);
         }
-        return list.stringPropertyNames().stream().collect(Collectors.toMap(k -> new Point(Integer.parseInt(k.split(",")[0]), Integer.parseInt(k.split(",")[1])), k -> new Color(Integer.parseInt(list.getProperty(k), 16))));
+        return Stencil.of(list.stringPropertyNames().stream().collect(Collectors.toMap(k -> new Point(Integer.parseInt(k.split(",")[0]), Integer.parseInt(k.split(",")[1])), k -> new Color(Integer.parseInt(list.getProperty(k), 16)))));
     }
 
     private static final Random random = new Random();
 
-    public static Map<Point, Color> fromImage(BufferedImage image) {
+    public static Stencil fromImage(BufferedImage image) {
         return Stencil.fromImage(image, 0);
     }
 
-    public static Map<Point, Color> fromImage(BufferedImage image, float degradation) {
+    public static Stencil fromImage(BufferedImage image, float degradation) {
         Map<Point, Color> map = new HashMap<>();
-        AppUtils.nestedLoop(0, image.getHeight(), 0, image.getWidth(), (y, x) -> {
-            if (random.nextDouble() > degradation) {
-                map.put(new Point(x, y), new Color(image.getRGB(x, y)));
+        int[] row = new int[image.getWidth()];
+        AppUtils.rowLoop(0, image.getHeight(), 0, image.getWidth(), (y, from, to) -> {
+            image.getRGB(from, y, to - from, 1, row, 0, to - from);
+            for (int x = from; x < to; x++) {
+                if (random.nextDouble() > degradation) {
+                    map.put(new Point(x, y), new Color(row[x - from]));
+                }
             }
         });
-        return map;
+        return Stencil.of(map);
     }
 
-    /** This comparator can sort points in top-to-down, left-to-right order. */
-    public static final Comparator<Point> POINT_COMPARATOR = (a, b) -> a.y < b.y || (a.y == b.y && a.x < b.x) ? -1 : 1;
+    /**
+     * Compile a point reference into a stencil with no colour difference
+     * tolerance.
+     *
+     * @param pointColors point reference
+     * @return the stencil
+     */
+    public static Stencil of(Map<Point, Color> pointColors) {
+        List<Point> sortedPoints = new ArrayList<>(pointColors.keySet());
+        sortedPoints.sort(Stencil.POINT_COMPARATOR);
+        int[] xs = new int[sortedPoints.size()];
+        int[] ys = new int[sortedPoints.size()];
+        int[] colours = new int[sortedPoints.size()];
+        for (int i = 0; i < sortedPoints.size(); i++) {
+            Point point = sortedPoints.get(i);
+            xs[i] = point.x;
+            ys[i] = point.y;
+            colours[i] = pointColors.get(point).getRGB() & 0xffffff;
+        }
+        return new Stencil(xs, ys, colours, 0);
+    }
+
+    /**
+     * Convert a colour difference tolerance into the greatest channel
+     * difference accepted by {@link Capture#colourDifferent(Color, Color)}.
+     *
+     * @param delta the colour difference tolerance
+     * @return the greatest accepted channel difference; or {@code -1} if no
+     *         difference is accepted
+     */
+    private static int channelTolerance(float delta) {
+        int tolerance = -1;
+        for (int d = 0; d < 256; d++) {
+            // use the same float comparison as the colourDifferent() check
+            if (!(d / 256f > delta)) {
+                tolerance = d;
+            }
+        }
+        return tolerance;
+    }
+
+    private Stencil(int[] xs, int[] ys, int[] colours, float tolerance) {
+        this.xs = xs;
+        this.ys = ys;
+        this.colours = colours;
+        this.tolerance = tolerance;
+        this.channelTolerance = Stencil.channelTolerance(tolerance);
+        int minX = 0;
+        int minY = 0;
+        int maxX = 0;
+        int maxY = 0;
+        for (int i = 0; i < xs.length; i++) {
+            minX = Math.min(minX, xs[i]);
+            minY = Math.min(minY, ys[i]);
+            maxX = Math.max(maxX, xs[i]);
+            maxY = Math.max(maxY, ys[i]);
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.offsets = new ConcurrentHashMap<>();
+    }
+
+    private final int[] xs;
+    private final int[] ys;
+    private final int[] colours;
+    private final float tolerance;
+    private final int channelTolerance;
+    private final int minX;
+    private final int minY;
+    private final int maxX;
+    private final int maxY;
+    // array offsets of the points for each scanline stride
+    private final Map<Integer, int[]> offsets;
+
+    /**
+     * Create a copy of this stencil with another colour difference tolerance.
+     * The points of the copy keep the order of this stencil.
+     *
+     * @param tolerance the colour difference tolerance
+     * @return the stencil
+     */
+    public Stencil withTolerance(float tolerance) {
+        return new Stencil(this.xs, this.ys, this.colours, tolerance);
+    }
+
+    /**
+     * Create a copy of this stencil with the points ordered by how rarely
+     * their colours appear in the colour histogram. Matching tests the points
+     * in this order, such that a mismatching position is rejected by the most
+     * selective points first. Points of equal rarity keep their order.
+     *
+     * @param histogram the colour histogram
+     * @return the stencil
+     */
+    public Stencil ranked(ColourHistogram histogram) {
+        long[] rarity = new long[this.xs.length];
+        Integer[] order = new Integer[this.xs.length];
+        for (int i = 0; i < order.length; i++) {
+            rarity[i] = histogram.count(this.colours[i], this.channelTolerance);
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> rarity[i]));
+        int[] xs = new int[order.length];
+        int[] ys = new int[order.length];
+        int[] colours = new int[order.length];
+        for (int i = 0; i < order.length; i++) {
+            xs[i] = this.xs[order[i]];
+            ys[i] = this.ys[order[i]];
+            colours[i] = this.colours[order[i]];
+        }
+        return new Stencil(xs, ys, colours, this.tolerance);
+    }
+
+    /**
+     * Get the colour difference tolerance of this stencil.
+     *
+     * @return the colour difference tolerance
+     */
+    public float getTolerance() {
+        return this.tolerance;
+    }
+
+    /**
+     * Get the greatest accepted channel difference of this stencil.
+     *
+     * @return the greatest accepted channel difference; or {@code -1} if no
+     *         difference is accepted
+     */
+    public int getChannelTolerance() {
+        return this.channelTolerance;
+    }
+
+    /**
+     * Get the bounding box of the points of this stencil, the bounding box
+     * always includes the origin.
+     *
+     * @return the bounding box
+     */
+    public Rectangle getBounds() {
+        return new Rectangle(this.minX, this.minY, this.maxX - this.minX + 1, this.maxY - this.minY + 1);
+    }
+
+    /**
+     * Get the number of points in this stencil.
+     *
+     * @return the number of points
+     */
+    public int size() {
+        return this.xs.length;
+    }
+
+    /**
+     * Get the X offset of a point.
+     *
+     * @param index the index of the point
+     * @return the X offset
+     */
+    public int getX(int index) {
+        return this.xs[index];
+    }
+
+    /**
+     * Get the Y offset of a point.
+     *
+     * @param index the index of the point
+     * @return the Y offset
+     */
+    public int getY(int index) {
+        return this.ys[index];
+    }
+
+    /**
+     * Get the RGB value of a point.
+     *
+     * @param index the index of the point
+     * @return the RGB value
+     */
+    public int getColour(int index) {
+        return this.colours[index];
+    }
+
+    int minX() {
+        return this.minX;
+    }
 
-    private Stencil() {}
+    int minY() {
+        return this.minY;
+    }
+
+    int maxX() {
+        return this.maxX;
+    }
+
+    int maxY() {
+        return this.maxY;
+    }
+
+    int[] colours() {
+        return this.colours;
+    }
+
+    /**
+     * Get the array offsets of all points for a scanline stride. The offsets
+     * are cached for each stride, the cache is cleared once it holds more than
+     * a few strides. A concurrent miss of the same stride may compute the
+     * offsets twice, with the same result.
+     *
+     * @param stride the scanline stride
+     * @return the array offsets
+     */
+    int[] offsets(int stride) {
+        int[] offsets = this.offsets.get(stride);
+        if (Objects.isNull(offsets)) {
+            offsets = new int[this.xs.length];
+            for (int i = 0; i < offsets.length; i++) {
+                offsets[i] = this.ys[i] * stride + this.xs[i];
+            }
+            if (this.offsets.size() >= Stencil.STRIDES) {
+                this.offsets.clear();
+            }
+            this.offsets.put(stride, offsets);
+        }
+        return offsets;
+    }
 
 }
@@ -0,0 +1,158 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import java.awt.Point;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code StencilMatcher} finds a {@link Stencil} in a {@link PixelView}.
+ * The matching compares the packed colour channels directly on the
+ * underlying array of the view without any object allocation.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class StencilMatcher {
+
+    /**
+     * Find the first offset (in top-to-down, left-to-right order) of the
+     * stencil in the pixel view.
+     *
+     * @param view the pixel view
+     * @param stencil the stencil
+     * @return the offset; or {@code null} if the stencil does not match in the
+     *         pixel view
+     */
+    static Point find(PixelView view, Stencil stencil) {
+        return StencilMatcher.find(view, stencil, Search.mode(view));
+    }
+
+    /**
+     * Find the first offset (in top-to-down, left-to-right order) of the
+     * stencil in the pixel view in a search mode.
+     *
+     * @param view the pixel view
+     * @param stencil the stencil
+     * @param mode the search mode
+     * @return the offset; or {@code null} if the stencil does not match in the
+     *         pixel view
+     */
+    static Point find(PixelView view, Stencil stencil, Search.Mode mode) {
+        if (mode == Search.Mode.PARALLEL) {
+            return StencilMatcher.findParallel(view, stencil);
+        }
+        if (mode == Search.Mode.PYRAMID) {
+            return PyramidSearch.find(view, stencil);
+        }
+        return StencilMatcher.find(view, stencil, 0, 0, view.getWidth(), view.getHeight());
+    }
+
+    /**
+     * Find the first offset of the stencil in the pixel view, the rows of the
+     * view are split into bands and searched concurrently. The hit of the
+     * lowest band is the result, and bands after the lowest band with a hit
+     * are cancelled, such that the result is the same as a sequential search.
+     *
+     * @param view the pixel view
+     * @param stencil the stencil
+     * @return the offset; or {@code null} if the stencil does not match in the
+     *         pixel view
+     */
+    private static Point findParallel(PixelView view, Stencil stencil) {
+        int bands = Search.bands(view.getHeight());
+        int height = (view.getHeight() + bands - 1) / bands;
+        Point[] found = new Point[bands];
+        AtomicInteger first = new AtomicInteger(bands);
+        IntStream.range(0, bands).parallel().forEach(b -> {
+            for (int y = b * height; y < Math.min((b + 1) * height, view.getHeight()) && b < first.get(); y++) {
+                Point offset = StencilMatcher.find(view, stencil, 0, y, view.getWidth(), y + 1);
+                if (Objects.nonNull(offset)) {
+                    found[b] = offset;
+                    first.accumulateAndGet(b, Math::min);
+                    return;
+                }
+            }
+        });
+        return first.get() < bands ? found[first.get()] : null;
+    }
+
+    /**
+     * Find the first offset (in top-to-down, left-to-right order) of the
+     * stencil in the pixel view, within an area of candidate offsets.
+     *
+     * @param view the pixel view
+     * @param stencil the stencil
+     * @param left the smallest X coordinate of the candidate offsets
+     * @param top the smallest Y coordinate of the candidate offsets
+     * @param right the exclusive largest X coordinate of the candidate offsets
+     * @param bottom the exclusive largest Y coordinate of the candidate
+     *               offsets
+     * @return the offset; or {@code null} if the stencil does not match in the
+     *         area
+     */
+    static Point find(PixelView view, Stencil stencil, int left, int top, int right, int bottom) {
+        return StencilMatcher.find(view, stencil, left, top, right, bottom, 1);
+    }
+
+    /**
+     * Find the first offset (in top-to-down, left-to-right order) of the
+     * stencil in the pixel view, within every {@code step}-th column and row
+     * of an area of candidate offsets.
+     *
+     * @param view the pixel view
+     * @param stencil the stencil
+     * @param left the smallest X coordinate of the candidate offsets
+     * @param top the smallest Y coordinate of the candidate offsets
+     * @param right the exclusive largest X coordinate of the candidate offsets
+     * @param bottom the exclusive largest Y coordinate of the candidate
+     *               offsets
+     * @param step the distance between the candidate offsets
+     * @return the offset; or {@code null} if the stencil does not match in the
+     *         area
+     */
+    static Point find(PixelView view, Stencil stencil, int left, int top, int right, int bottom, int step) {
+        int tolerance = stencil.getChannelTolerance();
+        int[] offsets = stencil.offsets(view.stride());
+        int[] colours = stencil.colours();
+        int[] data = view.data();
+        // every point of the stencil must be inside the view, the smallest
+        // coordinates are moved by whole steps to keep the alignment
+        left += Math.max(Math.floorDiv(-stencil.minX() - left + step - 1, step), 0) * step;
+        top += Math.max(Math.floorDiv(-stencil.minY() - top + step - 1, step), 0) * step;
+        right = Math.min(right, view.getWidth() - stencil.maxX());
+        bottom = Math.min(bottom, view.getHeight() - stencil.maxY());
+        for (int y = top; y < bottom; y += step) {
+            for (int x = left; x < right; x += step) {
+                int base = view.index(x, y);
+                int i = 0;
+                while (i < offsets.length && StencilMatcher.matches(colours[i], data[base + offsets[i]], tolerance)) {
+                    i++;
+                }
+                if (i == offsets.length) {
+                    return new Point(x, y);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Compare two RGB values channel by channel.
+     *
+     * @param expected the expected RGB value
+     * @param actual the actual RGB value
+     * @param tolerance the greatest accepted channel difference
+     * @return {@code true} if no channel differs more than the tolerance; or
+     *         {@code false} otherwise
+     */
+    static boolean matches(int expected, int actual, int tolerance) {
+        int r = (expected >> 16 & 0xff) - (actual >> 16 & 0xff);
+        int g = (expected >> 8 & 0xff) - (actual >> 8 & 0xff);
+        int b = (expected & 0xff) - (actual & 0xff);
+        return r <= tolerance && -r <= tolerance && g <= tolerance && -g <= tolerance && b <= tolerance && -b <= tolerance;
+    }
+
+    private StencilMatcher() {}
+
+}
@@ -0,0 +1,233 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import java.awt.Point;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+/**
+ * The {@code StencilScanner} finds multiple stencils in a single traversal of
+ * a {@link PixelView}. Each stencil is keyed on its anchor, the first (and
+ * most selective) point of the stencil. A table maps every binned colour to
+ * the stencils whose anchor may match the colour, such that each pixel costs
+ * one table lookup, and only a pixel matching an anchor starts a full
+ * verification of the stencil at the corresponding offset. In the
+ * {@code PYRAMID} search mode, the stencils are not scanned in a shared pass,
+ * each stencil is searched on its own decimated level by {@link PyramidSearch},
+ * as the levels and the key points differ between the stencils.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class StencilScanner {
+
+    /** Number of compiled scanners kept. */
+    private static final int CAPACITY = 16;
+
+    /**
+     * Compiled scanners of the recently used sets of stencils, the least
+     * recently used scanner is dropped once more sets are used.
+     */
+    private static final Map<List<Stencil>, StencilScanner> COMPILED = Collections.synchronizedMap(new LinkedHashMap<List<Stencil>, StencilScanner>(StencilScanner.CAPACITY * 2, 0.75f, true) {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<List<Stencil>, StencilScanner> eldest) {
+            return this.size() > StencilScanner.CAPACITY;
+        }
+
+    });
+
+    /**
+     * Get the scanner of a set of stencils.
+     *
+     * @param stencils the stencils
+     * @return the scanner
+     */
+    public static StencilScanner of(Stencil... stencils) {
+        return StencilScanner.COMPILED.computeIfAbsent(Arrays.asList(stencils.clone()), StencilScanner::new);
+    }
+
+    /**
+     * Register a value to all bins of an anchor table that a colour may match
+     * within a tolerance, the bins are the same as of the
+     * {@link ColourHistogram}.
+     *
+     * @param table the anchor table
+     * @param rgb the RGB value of the anchor
+     * @param tolerance the greatest accepted channel difference
+     * @param value the value to be registered
+     */
+    static void register(List<List<Integer>> table, int rgb, int tolerance, int value) {
+        ColourHistogram.bins(rgb, tolerance).forEach(i -> table.get(i).add(value));
+    }
+
+    /**
+     * Create an empty anchor table.
+     *
+     * @return the anchor table
+     */
+    static List<List<Integer>> table() {
+        List<List<Integer>> table = new ArrayList<>();
+        for (int i = 0; i < 4096; i++) {
+            table.add(new ArrayList<>());
+        }
+        return table;
+    }
+
+    /**
+     * Compile an anchor table into arrays.
+     *
+     * @param table the anchor table
+     * @return the compiled anchor table
+     */
+    static int[][] compile(List<List<Integer>> table) {
+        return table.stream().map(l -> l.stream().mapToInt(Integer::intValue).toArray()).toArray(int[][]::new);
+    }
+
+    private StencilScanner(List<Stencil> stencils) {
+        this.stencils = stencils.toArray(new Stencil[0]);
+        List<List<Integer>> table = StencilScanner.table();
+        for (int s = 0; s < this.stencils.length; s++) {
+            if (this.stencils[s].size() > 0) {
+                // register the stencil to all bins the anchor colour may match
+                StencilScanner.register(table, this.stencils[s].getColour(0), this.stencils[s].getChannelTolerance(), s);
+            }
+        }
+        this.table = StencilScanner.compile(table);
+    }
+
+    private final Stencil[] stencils;
+    private final int[][] table;
+
+    /**
+     * Find the first offset (in top-to-down, left-to-right order) of every
+     * stencil in the pixel view. The result of each stencil is the same as
+     * finding the stencil on its own.
+     *
+     * @param view the pixel view
+     * @return the offsets of the stencils found in the pixel view
+     */
+    public Map<Stencil, Point> scan(PixelView view) {
+        return this.scan(view, Search.mode(view));
+    }
+
+    /**
+     * Find the first offset (in top-to-down, left-to-right order) of every
+     * stencil in the pixel view in a search mode.
+     *
+     * @param view the pixel view
+     * @param mode the search mode
+     * @return the offsets of the stencils found in the pixel view
+     */
+    Map<Stencil, Point> scan(PixelView view, Search.Mode mode) {
+        Point[] offsets = new Point[this.stencils.length];
+        for (int s = 0; s < this.stencils.length; s++) {
+            if (this.stencils[s].size() == 0) {
+                // a stencil without anchor matches at its first offset
+                offsets[s] = StencilMatcher.find(view, this.stencils[s]);
+            }
+        }
+        if (mode == Search.Mode.PARALLEL) {
+            this.scanParallel(view, offsets);
+        }
+        else if (mode == Search.Mode.PYRAMID) {
+            // no shared pass, each stencil is searched on its own level
+            for (int s = 0; s < this.stencils.length; s++) {
+                if (this.stencils[s].size() > 0) {
+                    offsets[s] = PyramidSearch.find(view, this.stencils[s]);
+                }
+            }
+        }
+        else {
+            this.scan(view, 0, view.getHeight(), offsets, s -> this.stencils[s].size() == 0);
+        }
+        Map<Stencil, Point> result = new HashMap<>();
+        for (int s = 0; s < this.stencils.length; s++) {
+            if (Objects.nonNull(offsets[s])) {
+                result.put(this.stencils[s], offsets[s]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Find the first offset of every stencil, the rows of the pixel view are
+     * split into bands and scanned concurrently. For each stencil, the hit of
+     * the lowest band is the result, and a band stops scanning for a stencil
+     * once a lower band has a hit of that stencil. The result is the same as
+     * a sequential scan.
+     *
+     * @param view the pixel view
+     * @param offsets the offsets of the stencils
+     */
+    private void scanParallel(PixelView view, Point[] offsets) {
+        int bands = Search.bands(view.getHeight());
+        int height = (view.getHeight() + bands - 1) / bands;
+        Point[][] found = new Point[bands][];
+        AtomicIntegerArray first = new AtomicIntegerArray(this.stencils.length);
+        for (int s = 0; s < this.stencils.length; s++) {
+            first.set(s, this.stencils[s].size() == 0 ? -1 : bands);
+        }
+        IntStream.range(0, bands).parallel().forEach(b -> {
+            Point[] band = new Point[this.stencils.length];
+            this.scan(view, b * height, Math.min((b + 1) * height, view.getHeight()), band, s -> first.get(s) < b);
+            for (int s = 0; s < band.length; s++) {
+                if (Objects.nonNull(band[s])) {
+                    first.accumulateAndGet(s, b, Math::min);
+                }
+            }
+            found[b] = band;
+        });
+        for (int s = 0; s < this.stencils.length; s++) {
+            if (first.get(s) >= 0 && first.get(s) < bands) {
+                offsets[s] = found[first.get(s)][s];
+            }
+        }
+    }
+
+    /**
+     * Scan the rows of the pixel view for the anchors of the stencils.
+     *
+     * @param view the pixel view
+     * @param top the first row to be scanned
+     * @param bottom the exclusive last row to be scanned
+     * @param offsets the offsets of the stencils, the first offset found of a
+     *                stencil is stored in this array
+     * @param settled the test of a stencil no longer being searched
+     */
+    private void scan(PixelView view, int top, int bottom, Point[] offsets, IntPredicate settled) {
+        int[] data = view.data();
+        for (int y = top; y < bottom; y++) {
+            boolean pending = false;
+            for (int s = 0; s < offsets.length; s++) {
+                pending |= Objects.isNull(offsets[s]) && !settled.test(s);
+            }
+            if (!pending) {
+                return;
+            }
+            int index = view.index(0, y);
+            for (int x = 0; x < view.getWidth(); x++) {
+                for (int s : this.table[ColourHistogram.bin(data[index + x])]) {
+                    Stencil stencil = this.stencils[s];
+                    if (Objects.isNull(offsets[s]) && !settled.test(s)) {
+                        // the anchor is at this pixel, verify the whole stencil
+                        int ox = x - stencil.getX(0);
+                        int oy = y - stencil.getY(0);
+                        offsets[s] = StencilMatcher.find(view, stencil, ox, oy, ox + 1, oy + 1);
+                    }
+                }
+            }
+        }
+    }
+
+}
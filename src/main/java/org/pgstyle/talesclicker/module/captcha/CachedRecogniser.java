@@ -0,0 +1,193 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+/**
+ * The {@code CachedRecogniser} remembers the confident matrices of the
+ * recently recognised captchas of a {@link Recogniser}. A captcha dialog often
+ * stays on the screen across several retries, and the same thresholded
+ * captcha is then recognised again from the cache. The cache is keyed by the
+ * blue channel of the captcha, the only channel used by the recognisers, so a
+ * hit is always exact. The least recently used captcha is evicted when the
+ * cache is full. Concurrent misses of the same captcha share a single
+ * recognition, the later requests wait for the first one.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class CachedRecogniser implements Recogniser {
+
+    /** The pixels of a captcha. */
+    private static final class Key {
+
+        private Key(BufferedImage image) {
+            this.width = image.getWidth();
+            this.height = image.getHeight();
+            int[] rgbs = image.getRGB(0, 0, this.width, this.height, null, 0, this.width);
+            this.pixels = new byte[rgbs.length];
+            for (int i = 0; i < rgbs.length; i++) {
+                this.pixels[i] = (byte) rgbs[i];
+            }
+            this.hash = 31 * (31 * this.width + this.height) + Arrays.hashCode(this.pixels);
+        }
+
+        private final int width;
+        private final int height;
+        private final byte[] pixels;
+        private final int hash;
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) obj;
+            return this.hash == other.hash && this.width == other.width && this.height == other.height
+                && Arrays.equals(this.pixels, other.pixels);
+        }
+
+    }
+
+    /**
+     * Create a cached recogniser.
+     *
+     * @param recogniser the recogniser to recognise the uncached captchas
+     * @param capacity the number of captchas to be remembered
+     */
+    public CachedRecogniser(Recogniser recogniser, int capacity) {
+        this.recogniser = recogniser;
+        this.capacity = Math.max(capacity, 1);
+        this.cache = new LinkedHashMap<Key, float[][]>(16, 0.75f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, float[][]> eldest) {
+                if (this.size() > CachedRecogniser.this.capacity) {
+                    CachedRecogniser.this.evictions++;
+                    return true;
+                }
+                return false;
+            }
+
+        };
+        this.pending = new HashMap<>();
+    }
+
+    private final Recogniser recogniser;
+    private final int capacity;
+    private final Map<Key, float[][]> cache;
+    // the recognitions in progress of the missed captchas
+    private final Map<Key, FutureTask<float[][]>> pending;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    @Override
+    public float[][] recognise(BufferedImage image) {
+        Key key = new Key(image);
+        FutureTask<float[][]> task;
+        boolean owner = false;
+        synchronized (this) {
+            float[][] matrix = this.cache.get(key);
+            if (Objects.nonNull(matrix)) {
+                this.hits++;
+                return CachedRecogniser.copy(matrix);
+            }
+            task = this.pending.get(key);
+            if (Objects.isNull(task)) {
+                this.misses++;
+                task = new FutureTask<>(() -> this.recogniser.recognise(image));
+                this.pending.put(key, task);
+                owner = true;
+            }
+            else {
+                // the same captcha is being recognised, wait for the result
+                this.hits++;
+            }
+        }
+        if (owner) {
+            // recognise outside of the lock, only the requests of the same
+            // captcha wait for this recognition
+            task.run();
+        }
+        float[][] matrix;
+        try {
+            matrix = CachedRecogniser.await(task);
+        } finally {
+            if (owner) {
+                synchronized (this) {
+                    this.pending.remove(key);
+                }
+            }
+        }
+        if (owner) {
+            synchronized (this) {
+                this.cache.put(key, CachedRecogniser.copy(matrix));
+            }
+        }
+        return CachedRecogniser.copy(matrix);
+    }
+
+    private static float[][] await(FutureTask<float[][]> task) {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("interrupted");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException("recognition failed", e.getCause());
+        }
+    }
+
+    private static float[][] copy(float[][] matrix) {
+        float[][] copy = new float[matrix.length][];
+        for (int i = 0; i < matrix.length; i++) {
+            copy[i] = matrix[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Get the recogniser of the uncached captchas.
+     *
+     * @return the recogniser
+     */
+    public Recogniser getRecogniser() {
+        return this.recogniser;
+    }
+
+    /**
+     * Get the counters in text.
+     *
+     * @return the counter text
+     */
+    public synchronized String statistics() {
+        long lookups = this.hits + this.misses;
+        return String.format("cached %d of %d captchas, hits=%d (%.1f%%), misses=%d, evictions=%d",
+                             this.cache.size(), this.capacity, this.hits,
+                             lookups == 0 ? 0.0 : 100.0 * this.hits / lookups, this.misses, this.evictions);
+    }
+
+}
@@ -1,14 +1,24 @@
 package org.pgstyle.talesclicker.module.captcha;
 
+import java.awt.Point;
+import java.awt.Transparency;
+import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DataBufferByte;
+import java.awt.image.Raster;
+import java.awt.image.WritableRaster;
 
-import org.pgstyle.talesclicker.application.AppUtils;
 import org.pgstyle.talesclicker.imagedb.Capture;
+import org.pgstyle.talesclicker.imagedb.PixelView;
 
 /**
  * The {@code CaptchaCapture} is the container of the captcha text of the
  * captcha dialog. Upon the creation of the capture object, channel extraction
- * and thresholding will be performed to the underlying image.
+ * and thresholding will be performed into a grey-scale plane owned by the
+ * capture, the source image is never modified.
  *
  * @since 0.4-dev
  * @author PGKan
@@ -22,19 +32,49 @@ public final class CaptchaCapture extends Capture {
      * @return a capture object
      */
     public static CaptchaCapture fromImage(BufferedImage image) {
-        AppUtils.nestedLoop(0, image.getHeight(), 0, image.getWidth(), (y, x) -> {
-            // extract blue channel only
-            int b = image.getRGB(x, y) & 0x000000ff;
-            // thresholding at 120 and flip colour
-            b = b > 120 ? 0 : 255;
-            // reapply pixel colour
-            image.setRGB(x, y, (b << 16) + (b << 8) + b);
-        });
-        return new CaptchaCapture(image);
+        PixelView pixels = PixelView.of(image);
+        int width = pixels.getWidth();
+        int height = pixels.getHeight();
+        byte[] plane = new byte[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                // extract blue channel only, thresholding at 120 and flip
+                // colour
+                plane[y * width + x] = (pixels.getRGB(x, y) & 0xff) > 120 ? 0 : (byte) 0xff;
+            }
+        }
+        return new CaptchaCapture(plane, width, height);
     }
 
-    private CaptchaCapture(BufferedImage image) {
-        super(image);
+    /**
+     * Create a grey-scale image backed by the plane.
+     *
+     * @param plane the grey-scale plane
+     * @param width the width of the plane
+     * @param height the height of the plane
+     * @return the image
+     */
+    private static BufferedImage wrap(byte[] plane, int width, int height) {
+        ColorModel model = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_GRAY), new int[] {8}, false, true, Transparency.OPAQUE, DataBuffer.TYPE_BYTE);
+        WritableRaster raster = Raster.createInterleavedRaster(new DataBufferByte(plane, plane.length), width, height, width, 1, new int[] {0}, new Point());
+        return new BufferedImage(model, raster, false, null);
+    }
+
+    private CaptchaCapture(byte[] plane, int width, int height) {
+        super(CaptchaCapture.wrap(plane, width, height));
+        this.plane = plane;
+    }
+
+    private final byte[] plane;
+
+    /**
+     * Get the thresholded plane of the captcha, each pixel is {@code 0} for
+     * the background or {@code 0xff} for the text, in row-major order.
+     *
+     * @return a copy of the plane
+     */
+    public byte[] getPlane() {
+        return this.plane.clone();
     }
 
 }
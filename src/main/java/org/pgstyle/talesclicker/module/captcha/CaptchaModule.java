@@ -1,18 +1,24 @@
 package org.pgstyle.talesclicker.module.captcha;
 
 import java.awt.Point;
+import java.awt.Rectangle;
 import java.awt.image.BufferedImage;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Supplier;
 
 import org.pgstyle.talesclicker.action.Actions;
+import org.pgstyle.talesclicker.action.Frame;
+import org.pgstyle.talesclicker.action.FrameChange;
+import org.pgstyle.talesclicker.action.FrameGate;
 import org.pgstyle.talesclicker.application.AppUtils;
 import org.pgstyle.talesclicker.application.Application;
 import org.pgstyle.talesclicker.application.Application.Level;
 import org.pgstyle.talesclicker.application.Configuration;
+import org.pgstyle.talesclicker.imagedb.OffsetTracker;
+import org.pgstyle.talesclicker.imagedb.Stencil;
 import org.pgstyle.talesclicker.module.Environment;
 import org.pgstyle.talesclicker.module.Module;
 import org.pgstyle.talesclicker.module.ModuleControl;
@@ -27,48 +33,98 @@ import org.pgstyle.talesclicker.module.ModuleControl;
  */
 public final class CaptchaModule implements Module {
 
+    // the engines are created on demand, only the configured engine and the
+    // cascade engine are created by a module
+    private static final Map<String, Supplier<DigitRecogniser>> recognisers;
+
+    static {
+        recognisers = new HashMap<>();
+        recognisers.put("SPATIAL", SpatialRecogniser::new);
+        recognisers.put("FFT", FourierRecogniser::new);
+        recognisers.put("PRUNED", PrunedRecogniser::new);
+        recognisers.put("SEGMENTED", SegmentedRecogniser::new);
+        recognisers.put("INT8", IntegerRecogniser::new);
+        recognisers.put(null, recognisers.get("SPATIAL"));
+    }
+
+    private String engine;
+    private Recogniser recogniser;
+    private ParallelRecogniser parallel;
+    private CascadeRecogniser cascade;
+    private CachedRecogniser cache;
+    private final Recognition recognition = new Recognition();
     private long shortDelay;
     private long longDelay;
+    // screen bounds of the last solved captcha dialog and the last error
+    // dialog, for re-checking them without a full screen capture
+    private Rectangle dialog;
+    private Rectangle error;
+    // changes of the screen since the last check, the dialog search is skipped
+    // on an unchanged screen if no dialog was found in the last check
+    private FrameGate gate;
+    private boolean idle;
 
     /**
-     * Use {@link ConvolutionMask} to solve the preprocessed captcha in the
-     * image.
+     * Get the screen bounds of a stencil found at an offset of a capture, the
+     * stencil origin is at the top-left of the bounds.
      *
-     * @param check the image of the captcha
-     * @return the confident value of each digit
+     * @param origin the screen position of the capture
+     * @param offset the offset in the capture
+     * @param stencil the stencil
+     * @return the bounds in screen coordinates
+     */
+    private static Rectangle bounds(Point origin, Point offset, Stencil stencil) {
+        Rectangle bounds = stencil.getBounds();
+        return new Rectangle(origin.x + offset.x, origin.y + offset.y, bounds.x + bounds.width, bounds.y + bounds.height);
+    }
+
+    /**
+     * Re-check the last solved captcha dialog and the last error dialog by
+     * capturing only their bounds. A dialog remaining in its bounds is handled
+     * from the small capture. If neither dialog remains, the known bounds are
+     * forgotten, and a full screen search is required to find a dialog at a
+     * new position.
+     *
+     * @return the module control of the next execution; or {@code null} if
+     *         neither dialog remains
      */
-    private List<List<Float>> solve(BufferedImage check) {
-        float[][] matrix = ConvolutionMask.convolution(check);
-        List<List<Float>> result = new ArrayList<>();
-        for (float[] confident : matrix) {
-            List<Float> list = new ArrayList<>();
-            for (float value : confident) {
-                list.add(value);
+    private ModuleControl recheck() {
+        Rectangle[] regions = Objects.isNull(this.error) ? new Rectangle[] {this.dialog} : new Rectangle[] {this.dialog, this.error};
+        List<BufferedImage> captures = Actions.getCapturer().capture(regions);
+        for (int i = regions.length - 1; i >= 0; i--) {
+            // the stencils can only match at the origin of the exact bounds,
+            // the region does not move the last known offsets of the stencils
+            ModuleControl control = this.handle(FullCapture.fromRegion(captures.get(i)), regions[i].getLocation());
+            if (Objects.nonNull(control)) {
+                return control;
             }
-            result.add(list);
         }
-        return result;
+        this.dialog = null;
+        this.error = null;
+        Application.log(Level.DEBUG, "captcha dialog cleared, %s", Actions.getCapturer().statistics());
+        return null;
     }
 
     /**
      * Find captcha code in the preprocessed image.
      *
      * @param check the image of the captcha
-     * @return an array of all captcha digits
+     * @return the recognition of the captcha digits
      */
-    private int[] tryCaptchaCode(BufferedImage check) {
-        // calculate confident values
-        List<List<Float>> list = this.solve(check);
+    private Recognition tryCaptchaCode(BufferedImage check) {
         // choose the highest confident candidate as result
-        float[] confident = new float[list.size()];
-        int[] digits = new int[list.size()];
-        for (int i = 0; i < list.size(); i++) {
-            confident[i] = Collections.max(list.get(i));
-            digits[i] = list.get(i).indexOf(confident[i]);
-        }
-        Application.log(Level.INFO, "Captcha Number are %s", Arrays.toString(digits));
-        Application.log(Level.INFO, "With Confident of %s", Arrays.toString(confident));
-        return digits;
+        Recognition recognition = this.recognition.update(this.recogniser.recognise(check));
+        Application.log(Level.INFO, "Captcha Number are %s", recognition);
+        if ("PRUNED".equals(this.engine)) {
+            Application.log(Level.DEBUG, "pruned convolution, %s", PrunedRecogniser.statistics());
+        }
+        if (Objects.nonNull(this.cascade)) {
+            Application.log(Level.DEBUG, "recognition cascade, %s", this.cascade.statistics());
+        }
+        if (Objects.nonNull(this.cache)) {
+            Application.log(Level.DEBUG, "recognition cache, %s", this.cache.statistics());
+        }
+        return recognition;
     }
 
     @Override
@@ -76,41 +132,132 @@ public final class CaptchaModule implements Module {
         // load timing settings from config
         this.shortDelay = 1000l * Configuration.getConfig().getModulePropertyAsInteger("captcha", "delay.short");
         this.longDelay = 1000l * Configuration.getConfig().getModulePropertyAsInteger("captcha", "delay.long");
+        this.engine = Configuration.getConfig().getModuleProperty("captcha", "engine").toUpperCase();
+        if (!CaptchaModule.recognisers.containsKey(this.engine)) {
+            Application.log(Level.WARN, "unknown recognition engine %s, use spatial convolution", this.engine);
+        }
+        DigitRecogniser recogniser = CaptchaModule.recognisers.getOrDefault(this.engine, CaptchaModule.recognisers.get(null)).get();
+        switch (Configuration.getConfig().getModuleProperty("captcha", "recognition").toUpperCase()) {
+        case "PARALLEL":
+            int threads = (int) Configuration.getConfig().getModulePropertyAsInteger("captcha", "recognition.threads");
+            Application.log(Level.DEBUG, "score digits with %d threads", threads);
+            this.parallel = new ParallelRecogniser(recogniser, threads);
+            this.recogniser = this.parallel;
+            break;
+        case "SEQUENTIAL":
+        default:
+            this.recogniser = recogniser;
+            break;
+        }
+        // answer with a cheap recogniser first, and escalate the ambiguous
+        // captchas to the configured engine
+        String cascade = Configuration.getConfig().getModuleProperty("captcha", "cascade").toUpperCase();
+        if (CaptchaModule.recognisers.containsKey(cascade) && !cascade.equals(this.engine)) {
+            float threshold = (float) Configuration.getConfig().getModulePropertyAsReal("captcha", "cascade.margin");
+            Application.log(Level.DEBUG, "cascade from %s engine at margin %s", cascade, threshold);
+            this.cascade = new CascadeRecogniser(CaptchaModule.recognisers.get(cascade).get(), this.recogniser, threshold);
+            this.recogniser = this.cascade;
+        }
+        else if (!cascade.isEmpty() && !"NONE".equals(cascade)) {
+            Application.log(Level.WARN, "invalid cascade engine %s, use %s engine only", cascade, this.engine);
+        }
+        this.gate = Actions.getFrameBus().gate();
+        // remember the recent captchas, a captcha may stay across retries
+        int capacity = (int) Configuration.getConfig().getModulePropertyAsInteger("captcha", "recognition.cache");
+        if (capacity > 0) {
+            this.cache = new CachedRecogniser(this.recogniser, capacity);
+            this.recogniser = this.cache;
+        }
         return true;
     }
 
     @Override
     public ModuleControl execute() {
-        // full screen capture to find dialog position
-        BufferedImage screenshot = Actions.getCapturer().capture();
+        // after solving a captcha, re-check the known dialog bounds first
+        if (Objects.nonNull(this.dialog)) {
+            ModuleControl control = this.recheck();
+            if (Objects.nonNull(control)) {
+                return control;
+            }
+        }
+        // full screen capture to find dialog position, shared with the other
+        // modules within the capture interval
+        Frame frame = Actions.getFrameBus().frame();
+        try {
+            return this.search(frame);
+        } finally {
+            // the screenshot buffer is reused after releasing the frame
+            frame.release();
+        }
+    }
+
+    /**
+     * Find and solve the dialogs in a frame.
+     *
+     * @param frame the frame
+     * @return the module control of the next execution
+     */
+    private ModuleControl search(Frame frame) {
+        FrameChange change = this.gate.check(frame);
+        if (this.idle && change.isUnchanged()) {
+            Application.log(Level.DEBUG, "screen unchanged, skip dialog search, %s", change);
+            return ModuleControl.next(this.longDelay);
+        }
+        this.idle = false;
+
+        // locate the error dialog and the captcha dialog in a single pass
+        FullCapture full = FullCapture.fromImage(frame.getImage());
+        full.trackPointsOffsets(Stencil.ERROR_STENCIL, Stencil.CAPTCHA_STENCIL);
+        ModuleControl control = this.handle(full, Actions.getCapturer().getArea().getLocation());
+        if (Objects.nonNull(control)) {
+            return control;
+        }
+        this.idle = true;
+        Application.log(Level.DEBUG, "no captcha dialog or error dialog found, %s, %s", change, OffsetTracker.statistics());
+        Application.log(Level.DEBUG, "frame bus, %s, %s", Actions.getFrameBus().statistics(), Actions.getCapturer().statistics());
+        // no dialog found, wait longer delay before next check
+        return ModuleControl.next(this.longDelay);
+    }
 
+    /**
+     * Close the error dialog or solve the captcha dialog in a capture.
+     *
+     * @param full the capture
+     * @param origin the screen position of the capture
+     * @return the module control of the next execution; or {@code null} if
+     *         there is no dialog in the capture
+     */
+    private ModuleControl handle(FullCapture full, Point origin) {
         // check if error dialog exists
-        ErrorCapture error = ErrorCapture.fromImage(screenshot);
+        ErrorCapture error = ErrorCapture.fromCapture(full);
         Point errorOffset = error.findOffset();
         if (Objects.nonNull(errorOffset)) {
+            errorOffset.translate(origin.x, origin.y);
             Application.log(Level.INFO, "found error dialog at %s", errorOffset);
+            this.error = CaptchaModule.bounds(origin, full.trackPointsOffset(Stencil.ERROR_STENCIL), Stencil.ERROR_STENCIL);
             Actions.getClicker().click(errorOffset);
             // wait short delay to retry recognition
             return ModuleControl.next(this.shortDelay);
         }
 
         // check if captcha dialog exists
-        FullCapture full = FullCapture.fromImage(screenshot);
         Point fullOffset = full.findOffset();
         if (Objects.nonNull(fullOffset)) {
             String seqNo = AppUtils.timestamp();
-            Application.log(Level.INFO, "found captcha dialog at %s", fullOffset);
+            Application.log(Level.INFO, "found captcha dialog at %s", new Point(origin.x + fullOffset.x, origin.y + fullOffset.y));
             Application.log(Level.INFO, "captcha event seqNo: %s", seqNo);
             BufferedImage check = full.getCaptchaCapture().getImage();
             Application.log(check, "captchas/" + seqNo);
 
             // solve captcha to the end result
-            for (int code : this.tryCaptchaCode(check)) {
+            Recognition recognition = this.tryCaptchaCode(check);
+            for (int i = 0; i < recognition.size(); i++) {
+                int code = recognition.digit(i);
                 Application.log(Level.DEBUG, "handle captcha code: %d", code);
                 PinPadCapture pinpad = full.getPinPadCapture();
                 Point buttonOffset = pinpad.findNumber(code);
                 if (Objects.nonNull(buttonOffset)) {
-                    buttonOffset.translate(fullOffset.x, fullOffset.y);
+                    buttonOffset.translate(origin.x + fullOffset.x, origin.y + fullOffset.y);
                     Actions.getClicker().click(buttonOffset);
                 }
                 else {
@@ -118,17 +265,18 @@ public final class CaptchaModule implements Module {
                     break;
                 }
             }
+            this.dialog = CaptchaModule.bounds(origin, fullOffset, Stencil.CAPTCHA_STENCIL);
             // wait short delay in case of failed recognition
             return ModuleControl.next(this.shortDelay);
         }
-        Application.log(Level.DEBUG, "no captcha dialog or error dialog found");
-        // no dialog found, wait longer delay before next check
-        return ModuleControl.next(this.longDelay);
+        return null;
     }
 
     @Override
     public boolean finalise(ModuleControl control) {
-        // NOP
+        if (Objects.nonNull(this.parallel)) {
+            this.parallel.shutdown();
+        }
         return true;
     }
 
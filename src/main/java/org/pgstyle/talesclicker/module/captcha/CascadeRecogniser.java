@@ -0,0 +1,91 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The {@code CascadeRecogniser} recognises a captcha with a cheap recogniser
+ * first, and escalates to the full recogniser only if the reading is
+ * ambiguous. A reading is ambiguous if the margin of the most confident digit
+ * over the runner-up of any digit position is less than the threshold. The
+ * cascade is disabled by default ({@code application.module.captcha.cascade}
+ * is {@code NONE}), the first stage is an existing engine, and the accuracy
+ * of answering at a margin is not yet measured beyond the labelled samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class CascadeRecogniser implements Recogniser {
+
+    /**
+     * Create a cascade recogniser.
+     *
+     * @param cheap the recogniser of the first stage
+     * @param full the recogniser of the ambiguous captchas
+     * @param threshold the least margin for the first stage to answer
+     */
+    public CascadeRecogniser(Recogniser cheap, Recogniser full, float threshold) {
+        this.cheap = cheap;
+        this.full = full;
+        this.threshold = threshold;
+        this.recognition = new Recognition();
+        this.cheapCount = new AtomicLong();
+        this.cheapNanos = new AtomicLong();
+        this.fullCount = new AtomicLong();
+        this.fullNanos = new AtomicLong();
+    }
+
+    private final Recogniser cheap;
+    private final Recogniser full;
+    private final float threshold;
+    private final Recognition recognition;
+    private final AtomicLong cheapCount;
+    private final AtomicLong cheapNanos;
+    private final AtomicLong fullCount;
+    private final AtomicLong fullNanos;
+
+    @Override
+    public float[][] recognise(BufferedImage image) {
+        long start = System.nanoTime();
+        float[][] matrix = this.cheap.recognise(image);
+        this.cheapNanos.addAndGet(System.nanoTime() - start);
+        this.cheapCount.incrementAndGet();
+        float margin;
+        synchronized (this.recognition) {
+            margin = this.recognition.update(matrix).minimumMargin();
+        }
+        if (margin >= this.threshold) {
+            return matrix;
+        }
+        // ambiguous reading, escalate to the full recogniser
+        start = System.nanoTime();
+        matrix = this.full.recognise(image);
+        this.fullNanos.addAndGet(System.nanoTime() - start);
+        this.fullCount.incrementAndGet();
+        return matrix;
+    }
+
+    /**
+     * Get the recogniser of the ambiguous captchas.
+     *
+     * @return the recogniser
+     */
+    public Recogniser getRecogniser() {
+        return this.full;
+    }
+
+    /**
+     * Get the counters in text.
+     *
+     * @return the counter text
+     */
+    public String statistics() {
+        long cheap = this.cheapCount.get();
+        long full = this.fullCount.get();
+        return String.format("first stage %d in %.2f ms avg, escalated %d (%.1f%%) in %.2f ms avg, threshold=%s",
+                             cheap, cheap == 0 ? 0.0 : this.cheapNanos.get() / 1e6 / cheap,
+                             full, cheap == 0 ? 0.0 : 100.0 * full / cheap,
+                             full == 0 ? 0.0 : this.fullNanos.get() / 1e6 / full, this.threshold);
+    }
+
+}
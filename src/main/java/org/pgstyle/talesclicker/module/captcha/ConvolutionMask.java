@@ -1,19 +1,16 @@
 package org.pgstyle.talesclicker.module.captcha;
 
-import java.awt.Graphics2D;
-import java.awt.geom.AffineTransform;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.function.IntFunction;
 import java.util.function.ToIntFunction;
 
-import javax.imageio.ImageIO;
-
 import org.pgstyle.talesclicker.application.AppUtils;
 import org.pgstyle.talesclicker.application.Application;
 import org.pgstyle.talesclicker.application.Application.Level;
@@ -34,18 +31,16 @@ public final class ConvolutionMask {
      * @return the confident matrix
      */
     public static float[][] convolution(BufferedImage image) {
+        // quantify the image only once for all masks
+        int width = image.getWidth();
+        int height = image.getHeight();
+        float[] plane = ConvolutionMask.quantify(image);
         float[][] confident = new float[2][10];
         for (int i = 0; i < 10; i++) {
             float[] max = new float[2];
             // use the most matching mask rotation for that digit
             for (ConvolutionMask mask : ConvolutionMask.MASKS.get(i)) {
-                float[][] convoluted = mask.convolute(ConvolutionMask.quantify(image, a -> (a & 0xff) / 256f));
-                AppUtils.nestedLoop(0, convoluted[0].length, 0, convoluted.length, (y, x) -> {
-                    // left-half of the image is the first digit, and the other
-                    // half is the second digit
-                    int index = x < convoluted.length / 2 ? 0 : 1;
-                    max[index] = Math.max(max[index], convoluted[x][y]);
-                });
+                mask.maximise(plane, width, height, max);
             }
             confident[0][i] = max[0];
             confident[1][i] = max[1];
@@ -64,11 +59,42 @@ public final class ConvolutionMask {
      */
     public static float[][] quantify(BufferedImage image, IntFunction<Float> i2f) {
         float[][] quantities = new float[image.getWidth()][image.getHeight()];
-        AppUtils.nestedLoop(0, image.getHeight(), 0, image.getWidth(),
-                            (y, x) -> quantities[x][y] = i2f.apply(0xffffff & image.getRGB(x, y)));
+        int[] row = new int[image.getWidth()];
+        AppUtils.rowLoop(0, image.getHeight(), 0, image.getWidth(), (y, from, to) -> {
+            image.getRGB(from, y, to - from, 1, row, 0, to - from);
+            for (int x = from; x < to; x++) {
+                quantities[x][y] = i2f.apply(0xffffff & row[x - from]);
+            }
+        });
         return quantities;
     }
 
+    /**
+     * Get the masks of a digit, each mask is a rotation of the digit.
+     *
+     * @param digit the digit
+     * @return the masks
+     */
+    static Set<ConvolutionMask> getMasks(int digit) {
+        return ConvolutionMask.MASKS.get(digit);
+    }
+
+    /**
+     * Convert the image into a row-major plane of float, using the blue
+     * channel as grey-scale.
+     *
+     * @param image the image to be converted
+     * @return the converted plane
+     */
+    static float[] quantify(BufferedImage image) {
+        int[] rgbs = image.getRGB(0, 0, image.getWidth(), image.getHeight(), null, 0, image.getWidth());
+        float[] plane = new float[rgbs.length];
+        for (int i = 0; i < rgbs.length; i++) {
+            plane[i] = (rgbs[i] & 0xff) / 256f;
+        }
+        return plane;
+    }
+
     /**
      * Convert a matrix of float into an image.
      *
@@ -78,66 +104,67 @@ public final class ConvolutionMask {
      */
     public static BufferedImage unquantify(float[][] quantities, ToIntFunction<Float> f2i) {
         BufferedImage image = new BufferedImage(quantities.length, quantities[0].length, BufferedImage.TYPE_INT_RGB);
-        AppUtils.nestedLoop(0, image.getHeight(), 0, image.getWidth(),
-                            (y, x) -> image.setRGB(x, y, ~ 0xffffff | f2i.applyAsInt(quantities[x][y])));
+        int[] row = new int[image.getWidth()];
+        AppUtils.rowLoop(0, image.getHeight(), 0, image.getWidth(), (y, from, to) -> {
+            for (int x = from; x < to; x++) {
+                row[x - from] = ~ 0xffffff | f2i.applyAsInt(quantities[x][y]);
+            }
+            image.setRGB(from, y, to - from, 1, row, 0, to - from);
+        });
         return image;
     }
 
     /**
-     * Load convolution masks and create multiple rotated masks for each digit.
-     * 
+     * Load the rotated convolution masks of each digit from the mask bank, the
+     * masks are rendered if the mask bank is not available.
+     *
      * @return all created masks
      */
     private static Map<Integer, Set<ConvolutionMask>> createMasks() {
         Application.log(Level.DEBUG, "initialise convolution mask");
-        Map<Integer, Set<ConvolutionMask>> map = new HashMap<>();
-        for (int i = 0; i < 10; i++) {
-            Set<ConvolutionMask> set = new HashSet<>();
+        List<MaskBank.Entry> entries;
+        try {
+            entries = MaskBank.load();
+        } catch (IOException | IllegalArgumentException e) {
+            Application.log(Level.WARN, "failed to load mask bank, render masks instead, %s", e);
             try {
-                Application.log(Level.DEBUG, "load mask %d", i);
-                BufferedImage image = ImageIO.read(AppUtils.getResource("/imagedb/mask-" + i + "-0.png"));
-                // create rotated mask at 5 degrees increment, a plus/minus 2.5
-                // degrees discrepancy should be negligible since the
-                // convolution is fuzzy and permit some error
-                for (int r = -45; r <= 45; r += 5) {
-                    set.add(ConvolutionMask.fromImage(image, r));
-                }
-            } catch (IOException | IllegalArgumentException e) {
-                Application.log(Level.ERROR, "failed to load mask %d, %s", i, e);
-                e.printStackTrace();
+                entries = MaskBank.render();
+            } catch (IOException | IllegalArgumentException ex) {
+                Application.log(Level.ERROR, "failed to render masks, %s", ex);
+                ex.printStackTrace();
+                entries = Collections.emptyList();
             }
-            map.put(i, Collections.unmodifiableSet(set));
         }
+        Map<Integer, Set<ConvolutionMask>> map = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            map.put(i, new HashSet<>());
+        }
+        for (MaskBank.Entry entry : entries) {
+            map.get(entry.digit).add(new ConvolutionMask(entry.mask, entry.weight));
+        }
+        map.replaceAll((i, set) -> Collections.unmodifiableSet(set));
+        Application.log(Level.DEBUG, "loaded %d convolution masks", entries.size());
         return Collections.unmodifiableMap(map);
     }
 
-    private static ConvolutionMask fromImage(BufferedImage image, int rotation) {
-        // rotate the image as a new mask
-        AffineTransform transform = new AffineTransform();
-        transform.concatenate(AffineTransform.getTranslateInstance(10, 10));
-        transform.concatenate(AffineTransform.getRotateInstance(Math.toRadians(rotation)));
-        transform.concatenate(AffineTransform.getTranslateInstance(-10, -10));
-        BufferedImage rotated = new BufferedImage(20, 20, BufferedImage.TYPE_INT_RGB);
-        Graphics2D graphics = (Graphics2D) rotated.getGraphics();
-        graphics.drawImage(image, transform, null);
-        // quantify the image in grey-scale using only the blue channel
-        return new ConvolutionMask(ConvolutionMask.quantify(rotated, i -> i == 0 ? -1f : (i & 0xff) / 256f));
-    }
-
-    private ConvolutionMask(float[][] mask) {
+    private ConvolutionMask(float[][] mask, float weight) {
         this.mask = mask;
-        // the sum of mask is used to normalise the confident value for
-        // comparing confident to other masks
-        float sum = 0;
-        for (float[] fs : mask) {
-            for (float f : fs) {
-                sum += Math.max(f, 0);
+        this.weight = weight;
+        this.width = mask.length;
+        this.height = mask[0].length;
+        // flatten the mask in the order of summation of convolute()
+        this.kernel = new float[this.width * this.height];
+        for (int j = 0; j < this.height; j++) {
+            for (int i = 0; i < this.width; i++) {
+                this.kernel[j * this.width + i] = mask[i][j];
             }
         }
-        this.weight = sum;
     }
 
     private final float[][] mask;
+    private final float[] kernel;
+    private final int width;
+    private final int height;
     private final float weight;
 
     /**
@@ -148,13 +175,102 @@ public final class ConvolutionMask {
      */
     public float[][] convolute(float[][] image) {
         float[][] confident = new float[image.length - this.mask.length][image[0].length - this.mask[0].length];
-        AppUtils.nestedLoop(0, confident[0].length, 0, confident.length, (y, x) -> {
-            float[] sum = new float[1];
-            AppUtils.nestedLoop(0, this.mask[0].length, 0, this.mask.length, (j, i) -> sum[0] += this.mask[i][j] * image[x + i][y + j]);
+        AppUtils.loop(0, confident[0].length, 0, confident.length, (y, x) -> {
+            float sum = 0;
+            for (int j = 0; j < this.mask[0].length; j++) {
+                for (int i = 0; i < this.mask.length; i++) {
+                    sum += this.mask[i][j] * image[x + i][y + j];
+                }
+            }
             // normalise the confident value use the total weight of the mask
-            confident[x][y] = Math.max(sum[0] / this.weight, 0);
+            confident[x][y] = Math.max(sum / this.weight, 0);
         });
         return confident;
     }
 
+    /**
+     * Perform convolution use this mask on a quantified plane, and keep the
+     * greatest confident value of each half of the plane. The confident values
+     * are the same as the result of {@link #convolute(float[][])}.
+     *
+     * @param plane the row-major plane of the target image
+     * @param width the width of the plane
+     * @param height the height of the plane
+     * @param max the greatest confident value of the left-half and the
+     *            right-half of the plane
+     */
+    void maximise(float[] plane, int width, int height, float[] max) {
+        int right = width - this.width;
+        int bottom = height - this.height;
+        for (int y = 0; y < bottom; y++) {
+            for (int x = 0; x < right; x++) {
+                float sum = 0;
+                for (int j = 0; j < this.height; j++) {
+                    int row = (y + j) * width + x;
+                    int k = j * this.width;
+                    for (int i = 0; i < this.width; i++) {
+                        sum += this.kernel[k + i] * plane[row + i];
+                    }
+                }
+                // left-half of the image is the first digit, and the other
+                // half is the second digit
+                int index = x < right / 2 ? 0 : 1;
+                // normalise the confident value use the total weight of the mask
+                max[index] = Math.max(max[index], Math.max(sum / this.weight, 0));
+            }
+        }
+    }
+
+    /**
+     * Get the row-major plane of this mask, the plane must not be modified.
+     *
+     * @return the plane of the mask
+     */
+    float[] kernel() {
+        return this.kernel;
+    }
+
+    int width() {
+        return this.width;
+    }
+
+    int height() {
+        return this.height;
+    }
+
+    float weight() {
+        return this.weight;
+    }
+
+    /**
+     * Perform convolution use this mask on an area of window offsets of a
+     * quantified plane, and get the greatest confident value in the area.
+     *
+     * @param plane the row-major plane of the target image
+     * @param width the width of the plane
+     * @param left the smallest X coordinate of the window offsets
+     * @param top the smallest Y coordinate of the window offsets
+     * @param right the exclusive largest X coordinate of the window offsets
+     * @param bottom the exclusive largest Y coordinate of the window offsets
+     * @return the greatest confident value
+     */
+    float maximum(float[] plane, int width, int left, int top, int right, int bottom) {
+        float max = 0;
+        for (int y = top; y < bottom; y++) {
+            for (int x = left; x < right; x++) {
+                float sum = 0;
+                for (int j = 0; j < this.height; j++) {
+                    int row = (y + j) * width + x;
+                    int k = j * this.width;
+                    for (int i = 0; i < this.width; i++) {
+                        sum += this.kernel[k + i] * plane[row + i];
+                    }
+                }
+                // normalise the confident value use the total weight of the mask
+                max = Math.max(max, Math.max(sum / this.weight, 0));
+            }
+        }
+        return max;
+    }
+
 }
@@ -0,0 +1,54 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code DigitRecogniser} is a {@link Recogniser} which scores each
+ * numerical digit independently. An image is prepared once into a scorer, and
+ * the scorer calculates the greatest confident values of a digit, such that
+ * the digits can be scored in any order or concurrently.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public abstract class DigitRecogniser implements Recogniser {
+
+    /**
+     * Merge the scores of the digits into a confident matrix.
+     *
+     * @param scores the greatest confident values of the left-half and the
+     *               right-half of the image, of the digits {@code 0} to
+     *               {@code 9}
+     * @return the confident matrix
+     */
+    static float[][] merge(float[][] scores) {
+        float[][] confident = new float[2][scores.length];
+        for (int i = 0; i < scores.length; i++) {
+            confident[0][i] = scores[i][0];
+            confident[1][i] = scores[i][1];
+        }
+        return confident;
+    }
+
+    /**
+     * Prepare an image for scoring the digits, the scorer must be safe to be
+     * used concurrently.
+     *
+     * @param image the image to be calculated
+     * @return the scorer, which calculates the greatest confident values of the
+     *         left-half and the right-half of the image for a digit
+     */
+    protected abstract IntFunction<float[]> prepare(BufferedImage image);
+
+    @Override
+    public float[][] recognise(BufferedImage image) {
+        IntFunction<float[]> scorer = this.prepare(image);
+        float[][] scores = new float[10][];
+        for (int i = 0; i < 10; i++) {
+            scores[i] = scorer.apply(i);
+        }
+        return DigitRecogniser.merge(scores);
+    }
+
+}
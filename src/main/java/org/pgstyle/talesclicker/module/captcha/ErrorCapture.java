@@ -25,10 +25,24 @@ public final class ErrorCapture extends Capture {
         return new ErrorCapture(image);
     }
 
+    /**
+     * Create a capture object sharing the screenshot of another capture.
+     *
+     * @param capture a screenshot capture
+     * @return a capture object
+     */
+    public static ErrorCapture fromCapture(Capture capture) {
+        return new ErrorCapture(capture);
+    }
+
     private ErrorCapture(BufferedImage image) {
         super(image);
     }
 
+    private ErrorCapture(Capture capture) {
+        super(capture);
+    }
+
     /**
      * Find the position of the error dialog.
      *
@@ -36,7 +50,7 @@ public final class ErrorCapture extends Capture {
      *         is not found
      */
     public Point findOffset() {
-        Point offset = this.getPointsOffset(Stencil.ERROR_STENCIL);
+        Point offset = this.trackPointsOffset(Stencil.ERROR_STENCIL);
         Optional.ofNullable(offset).ifPresent(o -> o.translate(36, 15));
         return offset;
     }
@@ -0,0 +1,93 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+/**
+ * The {@code FastFourierTransform} is an iterative radix-2 complex Fourier
+ * transform of a fixed length. The twiddle factors and the bit-reversal
+ * permutation are calculated once upon the creation of the transform.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class FastFourierTransform {
+
+    /**
+     * Create a transform of a length.
+     *
+     * @param length the length of the transform, must be a power of 2
+     * @throws IllegalArgumentException if the length is not a power of 2
+     */
+    FastFourierTransform(int length) {
+        if (length < 1 || Integer.bitCount(length) != 1) {
+            throw new IllegalArgumentException("length must be a power of 2, " + length);
+        }
+        this.length = length;
+        this.cos = new double[length / 2];
+        this.sin = new double[length / 2];
+        for (int i = 0; i < length / 2; i++) {
+            this.cos[i] = Math.cos(2 * Math.PI * i / length);
+            this.sin[i] = Math.sin(2 * Math.PI * i / length);
+        }
+        this.reversed = new int[length];
+        int bits = Integer.numberOfTrailingZeros(length);
+        for (int i = 0; i < length; i++) {
+            this.reversed[i] = bits == 0 ? 0 : Integer.reverse(i) >>> (32 - bits);
+        }
+    }
+
+    private final int length;
+    private final double[] cos;
+    private final double[] sin;
+    private final int[] reversed;
+
+    /**
+     * Get the length of this transform.
+     *
+     * @return the length
+     */
+    int length() {
+        return this.length;
+    }
+
+    /**
+     * Transform a complex sequence in place, the inverse transform is not
+     * scaled.
+     *
+     * @param re the real part of the sequence
+     * @param im the imaginary part of the sequence
+     * @param inverse {@code true} for the inverse transform; or {@code false}
+     *                for the forward transform
+     */
+    void transform(double[] re, double[] im, boolean inverse) {
+        for (int i = 0; i < this.length; i++) {
+            int j = this.reversed[i];
+            if (i < j) {
+                double t = re[i];
+                re[i] = re[j];
+                re[j] = t;
+                t = im[i];
+                im[i] = im[j];
+                im[j] = t;
+            }
+        }
+        double sign = inverse ? 1 : -1;
+        for (int size = 2; size <= this.length; size <<= 1) {
+            int half = size >> 1;
+            int step = this.length / size;
+            for (int start = 0; start < this.length; start += size) {
+                for (int k = 0; k < half; k++) {
+                    double wr = this.cos[k * step];
+                    double wi = sign * this.sin[k * step];
+                    int a = start + k;
+                    int b = a + half;
+                    double tr = re[b] * wr - im[b] * wi;
+                    double ti = re[b] * wi + im[b] * wr;
+                    re[b] = re[a] - tr;
+                    im[b] = im[a] - ti;
+                    re[a] += tr;
+                    im[a] += ti;
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code FourierRecogniser} calculates the same convolution as the
+ * {@link ConvolutionMask} in the frequency domain. The captcha is transformed
+ * once, multiplied with the precomputed spectrum of every mask, and inverse
+ * transformed into the correlation map of the mask. The confident values are
+ * equal to the spatial convolution within the rounding error of the
+ * transform.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class FourierRecogniser extends DigitRecogniser {
+
+    private static int ceilPowerOfTwo(int value) {
+        return Math.max(Integer.highestOneBit(Math.max(value - 1, 1)) << 1, 2);
+    }
+
+    /** The transform and the mask spectra of a captcha size. */
+    private static final class Bank {
+
+        private Bank(RealFourierTransform transform, Map<ConvolutionMask, double[][]> spectra) {
+            this.transform = transform;
+            this.spectra = spectra;
+        }
+
+        private final RealFourierTransform transform;
+        private final Map<ConvolutionMask, double[][]> spectra;
+
+    }
+
+    // the bank of the last used captcha size
+    private Bank bank;
+
+    @Override
+    protected IntFunction<float[]> prepare(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        float[] plane = ConvolutionMask.quantify(image);
+        Bank bank = this.prepare(width, height);
+        RealFourierTransform transform = bank.transform;
+        double[][] spectrum = transform.forward(plane, width, height);
+        return digit -> {
+            double[] sre = new double[transform.size()];
+            double[] sim = new double[transform.size()];
+            float[] max = new float[2];
+            // use the most matching mask rotation for that digit
+            for (ConvolutionMask mask : ConvolutionMask.getMasks(digit)) {
+                double[][] kernel = bank.spectra.get(mask);
+                // correlation is the product with the conjugate of the mask
+                for (int k = 0; k < sre.length; k++) {
+                    sre[k] = spectrum[0][k] * kernel[0][k] + spectrum[1][k] * kernel[1][k];
+                    sim[k] = spectrum[1][k] * kernel[0][k] - spectrum[0][k] * kernel[1][k];
+                }
+                double[] correlation = transform.inverse(sre, sim);
+                int right = width - mask.width();
+                int bottom = height - mask.height();
+                for (int y = 0; y < bottom; y++) {
+                    for (int x = 0; x < right; x++) {
+                        // left-half of the image is the first digit, and the
+                        // other half is the second digit
+                        int index = x < right / 2 ? 0 : 1;
+                        float sum = (float) correlation[y * transform.width() + x];
+                        max[index] = Math.max(max[index], Math.max(sum / mask.weight(), 0));
+                    }
+                }
+            }
+            return max;
+        };
+    }
+
+    /**
+     * Prepare the transform and the mask spectra for a captcha size.
+     *
+     * @param width the width of the captcha
+     * @param height the height of the captcha
+     * @return the bank of the captcha size
+     */
+    private synchronized Bank prepare(int width, int height) {
+        int w = FourierRecogniser.ceilPowerOfTwo(width);
+        int h = FourierRecogniser.ceilPowerOfTwo(height);
+        if (Objects.isNull(this.bank) || this.bank.transform.width() != w || this.bank.transform.height() != h) {
+            RealFourierTransform transform = new RealFourierTransform(w, h);
+            Map<ConvolutionMask, double[][]> spectra = new HashMap<>();
+            for (int i = 0; i < 10; i++) {
+                for (ConvolutionMask mask : ConvolutionMask.getMasks(i)) {
+                    spectra.put(mask, transform.forward(mask.kernel(), mask.width(), mask.height()));
+                }
+            }
+            this.bank = new Bank(transform, spectra);
+        }
+        return this.bank;
+    }
+
+}
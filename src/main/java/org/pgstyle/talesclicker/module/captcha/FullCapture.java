@@ -26,10 +26,39 @@ public final class FullCapture extends Capture {
         return new FullCapture(image);
     }
 
+    /**
+     * Create a capture object from an image of the exact bounds of a dialog
+     * found before, the dialogs are only matched at the origin of the image.
+     *
+     * @param image a screenshot image of a region
+     * @return a capture object
+     */
+    public static FullCapture fromRegion(BufferedImage image) {
+        return new FullCapture(image, true);
+    }
+
+    /**
+     * Create a capture object sharing the screenshot of another capture.
+     *
+     * @param capture a screenshot capture
+     * @return a capture object
+     */
+    public static FullCapture fromCapture(Capture capture) {
+        return new FullCapture(capture);
+    }
+
     private FullCapture(BufferedImage image) {
         super(image);
     }
 
+    private FullCapture(BufferedImage image, boolean region) {
+        super(image, region);
+    }
+
+    private FullCapture(Capture capture) {
+        super(capture);
+    }
+
     /**
      * Get the captcha dialog capture object from the full screenshot.
      *
@@ -59,7 +88,7 @@ public final class FullCapture extends Capture {
      *         in the screenshot
      */
     public Point findOffset() {
-        return this.getPointsOffset(Stencil.CAPTCHA_STENCIL, 12f / 256);
+        return this.trackPointsOffset(Stencil.CAPTCHA_STENCIL);
     }
 
 }
@@ -0,0 +1,200 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.pgstyle.talesclicker.application.AppUtils;
+
+/**
+ * The {@code MaskBank} renders the rotated masks of the numerical digits, and
+ * stores them as a compact binary resource, such that the masks are only
+ * loaded instead of rendered upon the start of the application. The bank is
+ * created in the build by running this class as a program.
+ * <p>
+ * The bank is a little-endian binary file, starting with the magic number
+ * {@code TCMB}, the version, the number of masks, the width and the height of
+ * the masks. Each mask follows with its digit, its rotation, its weight (as
+ * float), and its values in column-major order, every value is stored as a
+ * 16-bit integer of {@code 1/256} units.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class MaskBank {
+
+    /** Resource name of the bank. */
+    public static final String RESOURCE = "/imagedb/masks.bank";
+
+    private static final int MAGIC = 0x424d4354;
+    private static final int VERSION = 1;
+    private static final int SIZE = 20;
+
+    /** A rendered mask in the bank. */
+    static final class Entry {
+
+        private Entry(int digit, int rotation, float weight, float[][] mask) {
+            this.digit = digit;
+            this.rotation = rotation;
+            this.weight = weight;
+            this.mask = mask;
+        }
+
+        final int digit;
+        final int rotation;
+        final float weight;
+        final float[][] mask;
+
+    }
+
+    /**
+     * Render the bank and store it into a file.
+     *
+     * @param args the path of the bank file
+     * @throws IOException if failed to render or store the bank
+     */
+    public static void main(String[] args) throws IOException {
+        Path path = Paths.get(args.length > 0 ? args[0] : "masks.bank");
+        Files.createDirectories(path.toAbsolutePath().getParent());
+        try (OutputStream os = Files.newOutputStream(path)) {
+            MaskBank.write(MaskBank.render(), os);
+        }
+    }
+
+    /**
+     * Load the bank from the application resources.
+     *
+     * @return the masks in the bank
+     * @throws IOException if failed to read the bank
+     * @throws IllegalArgumentException if the bank is not found or malformed
+     */
+    static List<Entry> load() throws IOException {
+        try (InputStream is = AppUtils.getResource(MaskBank.RESOURCE)) {
+            return MaskBank.read(is);
+        }
+    }
+
+    /**
+     * Load the mask images and create multiple rotated masks for each digit.
+     *
+     * @return the rendered masks
+     * @throws IOException if failed to read a mask image
+     */
+    static List<Entry> render() throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            BufferedImage image;
+            try (InputStream is = AppUtils.getResource("/imagedb/mask-" + i + "-0.png")) {
+                image = ImageIO.read(is);
+            }
+            // create rotated mask at 5 degrees increment, a plus/minus 2.5
+            // degrees discrepancy should be negligible since the
+            // convolution is fuzzy and permit some error
+            for (int r = -45; r <= 45; r += 5) {
+                float[][] mask = MaskBank.render(image, r);
+                entries.add(new Entry(i, r, MaskBank.weight(mask), mask));
+            }
+        }
+        return entries;
+    }
+
+    private static float[][] render(BufferedImage image, int rotation) {
+        // rotate the image as a new mask
+        AffineTransform transform = new AffineTransform();
+        transform.concatenate(AffineTransform.getTranslateInstance(10, 10));
+        transform.concatenate(AffineTransform.getRotateInstance(Math.toRadians(rotation)));
+        transform.concatenate(AffineTransform.getTranslateInstance(-10, -10));
+        BufferedImage rotated = new BufferedImage(MaskBank.SIZE, MaskBank.SIZE, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = (Graphics2D) rotated.getGraphics();
+        graphics.drawImage(image, transform, null);
+        // quantify the image in grey-scale using only the blue channel, the
+        // black background is quantified as -1
+        float[][] mask = new float[MaskBank.SIZE][MaskBank.SIZE];
+        for (int y = 0; y < MaskBank.SIZE; y++) {
+            for (int x = 0; x < MaskBank.SIZE; x++) {
+                int rgb = rotated.getRGB(x, y) & 0xffffff;
+                mask[x][y] = rgb == 0 ? -1f : (rgb & 0xff) / 256f;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Calculate the weight of a mask, the sum of mask is used to normalise the
+     * confident value for comparing confident to other masks.
+     *
+     * @param mask the mask
+     * @return the weight
+     */
+    static float weight(float[][] mask) {
+        float sum = 0;
+        for (float[] fs : mask) {
+            for (float f : fs) {
+                sum += Math.max(f, 0);
+            }
+        }
+        return sum;
+    }
+
+    private static void write(List<Entry> entries, OutputStream os) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(20 + entries.size() * (12 + MaskBank.SIZE * MaskBank.SIZE * 2)).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MaskBank.MAGIC).putInt(MaskBank.VERSION).putInt(entries.size()).putInt(MaskBank.SIZE).putInt(MaskBank.SIZE);
+        for (Entry entry : entries) {
+            buffer.putInt(entry.digit).putInt(entry.rotation).putFloat(entry.weight);
+            for (float[] column : entry.mask) {
+                for (float value : column) {
+                    buffer.putShort((short) Math.round(value * 256));
+                }
+            }
+        }
+        os.write(buffer.array());
+    }
+
+    private static List<Entry> read(InputStream is) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        for (int length = is.read(chunk); length >= 0; length = is.read(chunk)) {
+            bytes.write(chunk, 0, length);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray()).order(ByteOrder.LITTLE_ENDIAN);
+        if (buffer.remaining() < 20 || buffer.getInt() != MaskBank.MAGIC || buffer.getInt() != MaskBank.VERSION) {
+            throw new IllegalArgumentException("malformed mask bank");
+        }
+        int count = buffer.getInt();
+        int width = buffer.getInt();
+        int height = buffer.getInt();
+        if (buffer.remaining() != count * (12 + width * height * 2)) {
+            throw new IllegalArgumentException("malformed mask bank, size mismatch");
+        }
+        List<Entry> entries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int digit = buffer.getInt();
+            int rotation = buffer.getInt();
+            float weight = buffer.getFloat();
+            float[][] mask = new float[width][height];
+            for (float[] column : mask) {
+                for (int y = 0; y < height; y++) {
+                    column[y] = buffer.getShort() / 256f;
+                }
+            }
+            entries.add(new Entry(digit, rotation, weight, mask));
+        }
+        return entries;
+    }
+
+    private MaskBank() {}
+
+}
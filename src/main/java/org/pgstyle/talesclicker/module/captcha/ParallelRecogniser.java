@@ -0,0 +1,76 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code ParallelRecogniser} scores the digits of a
+ * {@link DigitRecogniser} concurrently on a bounded pool of daemon threads.
+ * The scores are merged in the order of the digits, such that the result is
+ * the same as the sequential recognition.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class ParallelRecogniser implements Recogniser {
+
+    private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+    /**
+     * Create a parallel recogniser.
+     *
+     * @param recogniser the recogniser to score the digits
+     * @param threads the number of threads of the pool, bounded to the
+     *                number of digits
+     */
+    public ParallelRecogniser(DigitRecogniser recogniser, int threads) {
+        this.recogniser = recogniser;
+        this.pool = Executors.newFixedThreadPool(Math.max(Math.min(threads, 10), 1), r -> {
+            Thread thread = new Thread(r, "Recogniser-" + ParallelRecogniser.SEQUENCE.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private final DigitRecogniser recogniser;
+    private final ExecutorService pool;
+
+    @Override
+    public float[][] recognise(BufferedImage image) {
+        IntFunction<float[]> scorer = this.recogniser.prepare(image);
+        List<Future<float[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            int digit = i;
+            futures.add(this.pool.submit(() -> scorer.apply(digit)));
+        }
+        float[][] scores = new float[10][];
+        for (int i = 0; i < 10; i++) {
+            try {
+                scores[i] = futures.get(i).get();
+            } catch (InterruptedException e) {
+                // finish the remaining digits in the current thread
+                Thread.currentThread().interrupt();
+                futures.get(i).cancel(false);
+                scores[i] = scorer.apply(i);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("failed to score digit " + i, e.getCause());
+            }
+        }
+        return DigitRecogniser.merge(scores);
+    }
+
+    /**
+     * Shutdown the pool of this recogniser.
+     */
+    public void shutdown() {
+        this.pool.shutdownNow();
+    }
+
+}
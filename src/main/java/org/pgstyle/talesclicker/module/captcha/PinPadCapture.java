@@ -1,11 +1,9 @@
 package org.pgstyle.talesclicker.module.captcha;
 
-import java.awt.Color;
 import java.awt.Point;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -16,6 +14,7 @@ import org.pgstyle.talesclicker.application.AppUtils;
 import org.pgstyle.talesclicker.application.Application;
 import org.pgstyle.talesclicker.application.Application.Level;
 import org.pgstyle.talesclicker.imagedb.Capture;
+import org.pgstyle.talesclicker.imagedb.ColourHistogram;
 import org.pgstyle.talesclicker.imagedb.Stencil;
 
 /**
@@ -37,18 +36,18 @@ public final class PinPadCapture extends Capture {
     /** Relative position of hte pinpad to the captcha dialog. */
     private static final Point PINPAD_OFFSET = new Point(286, 99);
 
-    private static final List<Map<Point, Color>> BUTTONS = PinPadCapture.loadButtons();
+    private static final List<Stencil> BUTTONS = PinPadCapture.loadButtons();
     
 
 
-    private static List<Map<Point, Color>> loadButtons() {
+    private static List<Stencil> loadButtons() {
         return AppUtils.getResources("/imagedb")
                        .filter(s -> PinPadCapture.LOADABLE.matcher(s).matches())
                        .map(name -> {
                            try {
                                // all candidates are loaded under the imagedb resources with a
                                // name of button-{number}.png
-                               return Stencil.fromImage(ImageIO.read(AppUtils.getResource(name)));
+                               return Stencil.fromImage(ImageIO.read(AppUtils.getResource(name))).withTolerance(6f / 256).ranked(ColourHistogram.samples());
                            } catch (IllegalArgumentException | IOException e) {
                                Application.log(Level.ERROR, "failed to load button %s, %s", name, e);
                                e.printStackTrace();
@@ -82,7 +81,7 @@ public final class PinPadCapture extends Capture {
      *         is not found
      */
     public final Point findNumber(int number) {
-        Point point = this.getPointsOffset(PinPadCapture.BUTTONS.get(number), 6f / 256);
+        Point point = this.getPointsOffset(PinPadCapture.BUTTONS.get(number));
         if (Objects.nonNull(point)) {
             point.translate(PinPadCapture.PINPAD_OFFSET.x, PinPadCapture.PINPAD_OFFSET.y);
             point.translate(23, 23);
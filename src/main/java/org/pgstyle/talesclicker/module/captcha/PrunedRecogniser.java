@@ -0,0 +1,184 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code PrunedRecogniser} calculates the same convolution as the
+ * {@link SpatialRecogniser}, but skips the work that cannot raise the greatest
+ * confident value of a digit half. The quantified captcha is never negative,
+ * so the sum of a window is bounded by the positive weight of the mask times
+ * the largest value of the captcha, and by the largest mask value times the
+ * sum of the window. A whole rotation is skipped if no window of a half can
+ * beat the current maximum of that half, a window is skipped if its bound
+ * cannot, and a window is abandoned after a mask row if the partial sum plus
+ * the positive weight of the remaining rows cannot. The bounds include a
+ * margin of the rounding error of the float summation, such that the result
+ * is the same as the exhaustive search.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class PrunedRecogniser extends DigitRecogniser {
+
+    /** Margin of the rounding error of summing 400 products in float. */
+    private static final double SLACK = 1.0 / 64;
+
+    private static final AtomicLong PRODUCTS = new AtomicLong();
+    private static final AtomicLong PRUNED_PRODUCTS = new AtomicLong();
+    private static final AtomicLong PRUNED_WINDOWS = new AtomicLong();
+    private static final AtomicLong ABANDONED_WINDOWS = new AtomicLong();
+    private static final AtomicLong PRUNED_ROTATIONS = new AtomicLong();
+
+    /** The bounds of a mask. */
+    private static final class Bound {
+
+        private Bound(ConvolutionMask mask) {
+            float[] kernel = mask.kernel();
+            this.remaining = new double[mask.height() + 1];
+            double peak = 0;
+            for (int j = mask.height() - 1; j >= 0; j--) {
+                double positive = 0;
+                for (int i = 0; i < mask.width(); i++) {
+                    positive += Math.max(kernel[j * mask.width() + i], 0);
+                    peak = Math.max(peak, kernel[j * mask.width() + i]);
+                }
+                this.remaining[j] = this.remaining[j + 1] + positive;
+            }
+            this.peak = peak;
+        }
+
+        // positive weight of the mask rows from a row to the end
+        private final double[] remaining;
+        // largest value of the mask
+        private final double peak;
+
+    }
+
+    /**
+     * Create a pruned recogniser.
+     */
+    public PrunedRecogniser() {
+        this.bounds = new HashMap<>();
+        for (int i = 0; i < 10; i++) {
+            for (ConvolutionMask mask : ConvolutionMask.getMasks(i)) {
+                this.bounds.put(mask, new Bound(mask));
+            }
+        }
+    }
+
+    private final Map<ConvolutionMask, Bound> bounds;
+
+    @Override
+    protected IntFunction<float[]> prepare(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        float[] plane = ConvolutionMask.quantify(image);
+        // summed-area table of the captcha in units of 1/256
+        long[] area = new long[(width + 1) * (height + 1)];
+        double top = 0;
+        for (int y = 0; y < height; y++) {
+            long row = 0;
+            for (int x = 0; x < width; x++) {
+                row += Math.round(plane[y * width + x] * 256);
+                area[(y + 1) * (width + 1) + x + 1] = area[y * (width + 1) + x + 1] + row;
+                top = Math.max(top, plane[y * width + x]);
+            }
+        }
+        double peak = top;
+        return digit -> {
+            float[] max = new float[2];
+            // bound of every window, shared by the rotations of the digit, the
+            // digits may be scored concurrently
+            double[] bounds = new double[width * height];
+            // use the most matching mask rotation for that digit
+            for (ConvolutionMask mask : ConvolutionMask.getMasks(digit)) {
+                this.maximise(mask, plane, area, peak, width, height, bounds, max);
+            }
+            return max;
+        };
+    }
+
+    private void maximise(ConvolutionMask mask, float[] plane, long[] area, double peak, int width, int height, double[] bounds, float[] max) {
+        Bound bound = this.bounds.get(mask);
+        float[] kernel = mask.kernel();
+        int right = width - mask.width();
+        int bottom = height - mask.height();
+        long products = (long) mask.width() * mask.height();
+        long windows = (long) Math.max(right, 0) * Math.max(bottom, 0);
+        // bound of every window and the greatest bound of each half
+        double[] best = new double[2];
+        for (int y = 0; y < bottom; y++) {
+            for (int x = 0; x < right; x++) {
+                long sum = area[(y + mask.height()) * (width + 1) + x + mask.width()] - area[y * (width + 1) + x + mask.width()]
+                         - area[(y + mask.height()) * (width + 1) + x] + area[y * (width + 1) + x];
+                double limit = Math.min(bound.remaining[0] * peak, bound.peak * sum / 256) + PrunedRecogniser.SLACK;
+                bounds[y * right + x] = limit;
+                int index = x < right / 2 ? 0 : 1;
+                best[index] = Math.max(best[index], limit);
+            }
+        }
+        if (best[0] / mask.weight() <= max[0] && best[1] / mask.weight() <= max[1]) {
+            PrunedRecogniser.PRUNED_ROTATIONS.incrementAndGet();
+            PrunedRecogniser.PRUNED_PRODUCTS.addAndGet(products * windows);
+            PrunedRecogniser.PRODUCTS.addAndGet(products * windows);
+            return;
+        }
+        long computed = 0;
+        long prunedWindows = 0;
+        long abandonedWindows = 0;
+        for (int y = 0; y < bottom; y++) {
+            for (int x = 0; x < right; x++) {
+                // left-half of the image is the first digit, and the other
+                // half is the second digit
+                int index = x < right / 2 ? 0 : 1;
+                if (bounds[y * right + x] / mask.weight() <= max[index]) {
+                    prunedWindows++;
+                    continue;
+                }
+                float sum = 0;
+                int j = 0;
+                while (j < mask.height()) {
+                    int row = (y + j) * width + x;
+                    int k = j * mask.width();
+                    for (int i = 0; i < mask.width(); i++) {
+                        sum += kernel[k + i] * plane[row + i];
+                    }
+                    j++;
+                    if ((sum + bound.remaining[j] * peak + PrunedRecogniser.SLACK) / mask.weight() <= max[index]) {
+                        break;
+                    }
+                }
+                computed += (long) j * mask.width();
+                if (j < mask.height()) {
+                    abandonedWindows++;
+                    continue;
+                }
+                // normalise the confident value use the total weight of the mask
+                max[index] = Math.max(max[index], Math.max(sum / mask.weight(), 0));
+            }
+        }
+        PrunedRecogniser.PRUNED_WINDOWS.addAndGet(prunedWindows);
+        PrunedRecogniser.ABANDONED_WINDOWS.addAndGet(abandonedWindows);
+        PrunedRecogniser.PRUNED_PRODUCTS.addAndGet(products * windows - computed);
+        PrunedRecogniser.PRODUCTS.addAndGet(products * windows);
+    }
+
+    /**
+     * Get the counters in text.
+     *
+     * @return the counter text
+     */
+    public static String statistics() {
+        long products = PrunedRecogniser.PRODUCTS.get();
+        return String.format("pruned %d of %d products (%.1f%%), windows=%d, abandoned=%d, rotations=%d",
+                             PrunedRecogniser.PRUNED_PRODUCTS.get(), products,
+                             products == 0 ? 0.0 : 100.0 * PrunedRecogniser.PRUNED_PRODUCTS.get() / products,
+                             PrunedRecogniser.PRUNED_WINDOWS.get(), PrunedRecogniser.ABANDONED_WINDOWS.get(),
+                             PrunedRecogniser.PRUNED_ROTATIONS.get());
+    }
+
+}
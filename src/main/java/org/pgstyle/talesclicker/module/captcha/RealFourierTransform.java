@@ -0,0 +1,146 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+/**
+ * The {@code RealFourierTransform} is a 2-dimensional Fourier transform of a
+ * real plane. Since the spectrum of a real plane is conjugate symmetric, only
+ * the columns {@code 0} to {@code width / 2} of the spectrum are kept, and two
+ * real rows are transformed together as one complex row.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class RealFourierTransform {
+
+    /**
+     * Create a transform of a plane size.
+     *
+     * @param width the width of the plane, must be a power of 2
+     * @param height the height of the plane, must be a power of 2 and at
+     *               least 2
+     * @throws IllegalArgumentException if the size is not supported
+     */
+    RealFourierTransform(int width, int height) {
+        if (height < 2) {
+            throw new IllegalArgumentException("height must be at least 2, " + height);
+        }
+        this.rows = new FastFourierTransform(width);
+        this.columns = new FastFourierTransform(height);
+    }
+
+    private final FastFourierTransform rows;
+    private final FastFourierTransform columns;
+
+    /**
+     * Get the width of the plane.
+     *
+     * @return the width
+     */
+    int width() {
+        return this.rows.length();
+    }
+
+    /**
+     * Get the height of the plane.
+     *
+     * @return the height
+     */
+    int height() {
+        return this.columns.length();
+    }
+
+    /**
+     * Get the size of the kept spectrum, the spectrum is stored column by
+     * column.
+     *
+     * @return the number of complex values in the spectrum
+     */
+    int size() {
+        return (this.width() / 2 + 1) * this.height();
+    }
+
+    /**
+     * Transform a row-major real plane, the plane is padded with zero to the
+     * size of the transform.
+     *
+     * @param plane the plane
+     * @param width the width of the plane
+     * @param height the height of the plane
+     * @return the real part and the imaginary part of the spectrum
+     */
+    double[][] forward(float[] plane, int width, int height) {
+        int w = this.width();
+        int h = this.height();
+        double[] sre = new double[this.size()];
+        double[] sim = new double[this.size()];
+        double[] re = new double[w];
+        double[] im = new double[w];
+        for (int r = 0; r < h; r += 2) {
+            for (int x = 0; x < w; x++) {
+                re[x] = x < width && r < height ? plane[r * width + x] : 0;
+                im[x] = x < width && r + 1 < height ? plane[(r + 1) * width + x] : 0;
+            }
+            this.rows.transform(re, im, false);
+            // separate the spectra of the two real rows
+            for (int k = 0; k <= w / 2; k++) {
+                int n = (w - k) % w;
+                sre[k * h + r] = (re[k] + re[n]) / 2;
+                sim[k * h + r] = (im[k] - im[n]) / 2;
+                sre[k * h + r + 1] = (im[k] + im[n]) / 2;
+                sim[k * h + r + 1] = (re[n] - re[k]) / 2;
+            }
+        }
+        this.transformColumns(sre, sim, false);
+        return new double[][] {sre, sim};
+    }
+
+    /**
+     * Inverse transform a spectrum into a row-major real plane, the spectrum
+     * is overwritten.
+     *
+     * @param sre the real part of the spectrum
+     * @param sim the imaginary part of the spectrum
+     * @return the plane of the size of the transform
+     */
+    double[] inverse(double[] sre, double[] sim) {
+        int w = this.width();
+        int h = this.height();
+        this.transformColumns(sre, sim, true);
+        double[] plane = new double[w * h];
+        double[] re = new double[w];
+        double[] im = new double[w];
+        double scale = 1.0 / (w * h);
+        for (int r = 0; r < h; r += 2) {
+            // combine the spectra of the two real rows into one complex row
+            for (int k = 0; k < w; k++) {
+                int c = k <= w / 2 ? k : w - k;
+                double sign = k <= w / 2 ? 1 : -1;
+                double ar = sre[c * h + r];
+                double ai = sign * sim[c * h + r];
+                double br = sre[c * h + r + 1];
+                double bi = sign * sim[c * h + r + 1];
+                re[k] = ar - bi;
+                im[k] = ai + br;
+            }
+            this.rows.transform(re, im, true);
+            for (int x = 0; x < w; x++) {
+                plane[r * w + x] = re[x] * scale;
+                plane[(r + 1) * w + x] = im[x] * scale;
+            }
+        }
+        return plane;
+    }
+
+    private void transformColumns(double[] sre, double[] sim, boolean inverse) {
+        int h = this.height();
+        double[] re = new double[h];
+        double[] im = new double[h];
+        for (int k = 0; k <= this.width() / 2; k++) {
+            System.arraycopy(sre, k * h, re, 0, h);
+            System.arraycopy(sim, k * h, im, 0, h);
+            this.columns.transform(re, im, inverse);
+            System.arraycopy(re, 0, sre, k * h, h);
+            System.arraycopy(im, 0, sim, k * h, h);
+        }
+    }
+
+}
@@ -0,0 +1,24 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The {@link CaptchaModule} uses a recogniser to read the digits of the
+ * preprocessed captcha. The {@code Recogniser} calculates how closely each
+ * half of the captcha matches each numerical digit.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public interface Recogniser {
+
+    /**
+     * Calculate the confident value of an image.
+     *
+     * @param image the image to be calculated
+     * @return the confident matrix, the confident values of the digits
+     *         {@code 0} to {@code 9} for the first and the second digit
+     */
+    float[][] recognise(BufferedImage image);
+
+}
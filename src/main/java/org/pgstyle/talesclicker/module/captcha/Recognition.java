@@ -0,0 +1,163 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+/**
+ * The {@code Recognition} is the reading of the digits of a captcha from the
+ * confident matrix of a {@link Recogniser}. For each digit position, it holds
+ * the most confident digit, the runner-up digit and their confident values.
+ * The recognition keeps primitive arrays and is updated in place, such that
+ * reading a captcha allocates nothing after the first reading of the same
+ * number of positions.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class Recognition {
+
+    /**
+     * Create an empty recognition.
+     */
+    public Recognition() {
+        this.resize(0);
+    }
+
+    private int size;
+    private int[] digits;
+    private float[] confidents;
+    private int[] runnerUps;
+    private float[] runnerUpConfidents;
+
+    /**
+     * Read the digits from a confident matrix, the highest confident digit is
+     * chosen, the lower digit wins a tie.
+     *
+     * @param matrix the confident matrix, the confident values of the digits
+     *               for each digit position
+     * @return this recognition
+     */
+    public Recognition update(float[][] matrix) {
+        if (matrix.length > this.digits.length) {
+            this.resize(matrix.length);
+        }
+        this.size = matrix.length;
+        for (int i = 0; i < matrix.length; i++) {
+            int best = -1;
+            int second = -1;
+            for (int d = 0; d < matrix[i].length; d++) {
+                if (best < 0 || matrix[i][d] > matrix[i][best]) {
+                    second = best;
+                    best = d;
+                }
+                else if (second < 0 || matrix[i][d] > matrix[i][second]) {
+                    second = d;
+                }
+            }
+            this.digits[i] = best;
+            this.confidents[i] = best < 0 ? 0 : matrix[i][best];
+            this.runnerUps[i] = second;
+            this.runnerUpConfidents[i] = second < 0 ? 0 : matrix[i][second];
+        }
+        return this;
+    }
+
+    private void resize(int size) {
+        this.digits = new int[size];
+        this.confidents = new float[size];
+        this.runnerUps = new int[size];
+        this.runnerUpConfidents = new float[size];
+    }
+
+    /**
+     * Get the number of digit positions.
+     *
+     * @return the number of digit positions
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Get the most confident digit of a position.
+     *
+     * @param position the digit position
+     * @return the digit, or {@code -1} if no digit is scored
+     */
+    public int digit(int position) {
+        return this.digits[this.check(position)];
+    }
+
+    /**
+     * Get the confident value of the most confident digit of a position.
+     *
+     * @param position the digit position
+     * @return the confident value
+     */
+    public float confident(int position) {
+        return this.confidents[this.check(position)];
+    }
+
+    /**
+     * Get the second most confident digit of a position.
+     *
+     * @param position the digit position
+     * @return the digit, or {@code -1} if less than two digits are scored
+     */
+    public int runnerUp(int position) {
+        return this.runnerUps[this.check(position)];
+    }
+
+    /**
+     * Get the confident value of the second most confident digit of a
+     * position.
+     *
+     * @param position the digit position
+     * @return the confident value
+     */
+    public float runnerUpConfident(int position) {
+        return this.runnerUpConfidents[this.check(position)];
+    }
+
+    /**
+     * Get the margin of the most confident digit over the runner-up of a
+     * position, a small margin means an ambiguous reading.
+     *
+     * @param position the digit position
+     * @return the margin
+     */
+    public float margin(int position) {
+        return this.confidents[this.check(position)] - this.runnerUpConfidents[position];
+    }
+
+    /**
+     * Get the smallest margin of all positions.
+     *
+     * @return the smallest margin, or infinity if there is no position
+     */
+    public float minimumMargin() {
+        float margin = Float.POSITIVE_INFINITY;
+        for (int i = 0; i < this.size; i++) {
+            margin = Math.min(margin, this.margin(i));
+        }
+        return margin;
+    }
+
+    private int check(int position) {
+        if (position < 0 || position >= this.size) {
+            throw new IndexOutOfBoundsException("position " + position + " of " + this.size);
+        }
+        return position;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < this.size; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(String.format("%d (%.4f, runner-up %d by %.4f)",
+                                         this.digits[i], this.confidents[i], this.runnerUps[i], this.margin(i)));
+        }
+        return builder.append(']').toString();
+    }
+
+}
@@ -0,0 +1,108 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code SegmentedRecogniser} locates the two glyphs of the thresholded
+ * captcha before the convolution. The centre of each glyph is the centroid of
+ * the column projection of its half of the captcha, and the centroid of the
+ * row projection of all columns of the same half. The halves are split at the
+ * centre column of the first window offset of the second digit, the same
+ * split as of the window offsets of a mask. The masks are only convolved at
+ * the window offsets around the glyph centre, such that only a small portion
+ * of the windows of the full convolution are calculated, and the confident
+ * value of a digit never exceeds the one of the full convolution. A half
+ * without any glyph pixel is convolved in full.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class SegmentedRecogniser extends DigitRecogniser {
+
+    /** Distance from the glyph centre of the convolved window offsets. */
+    private static final int RADIUS = 4;
+
+    @Override
+    protected IntFunction<float[]> prepare(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        float[] plane = ConvolutionMask.quantify(image);
+        // column projection of the glyph pixels
+        float[] columns = new float[width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                columns[x] += plane[y * width + x];
+            }
+        }
+        // glyph centres of the halves split at a column, the masks of the same
+        // width share the split, and the digits may be scored concurrently
+        Map<Integer, int[][]> located = new ConcurrentHashMap<>();
+        return digit -> {
+            float[] max = new float[2];
+            // use the most matching mask rotation for that digit
+            for (ConvolutionMask mask : ConvolutionMask.getMasks(digit)) {
+                int right = width - mask.width();
+                int bottom = height - mask.height();
+                int[][] centres = located.computeIfAbsent(right / 2 + mask.width() / 2, split -> new int[][] {
+                    SegmentedRecogniser.locate(plane, columns, width, height, 0, split),
+                    SegmentedRecogniser.locate(plane, columns, width, height, split, width)
+                });
+                for (int index = 0; index < 2; index++) {
+                    // left-half of the window offsets is the first digit, and
+                    // the other half is the second digit
+                    int left = index == 0 ? 0 : right / 2;
+                    int limit = index == 0 ? right / 2 : right;
+                    int top = 0;
+                    int end = bottom;
+                    if (centres[index] != null) {
+                        int x = centres[index][0] - mask.width() / 2;
+                        int y = centres[index][1] - mask.height() / 2;
+                        left = Math.max(left, x - SegmentedRecogniser.RADIUS);
+                        limit = Math.min(limit, x + SegmentedRecogniser.RADIUS + 1);
+                        top = Math.max(top, y - SegmentedRecogniser.RADIUS);
+                        end = Math.min(end, y + SegmentedRecogniser.RADIUS + 1);
+                    }
+                    max[index] = Math.max(max[index], mask.maximum(plane, width, left, top, limit, end));
+                }
+            }
+            return max;
+        };
+    }
+
+    /**
+     * Locate the centre of the glyph in a range of columns.
+     *
+     * @param plane the row-major plane of the captcha
+     * @param columns the column projection of the captcha
+     * @param width the width of the plane
+     * @param height the height of the plane
+     * @param left the first column of the range
+     * @param right the exclusive last column of the range
+     * @return the centre; or {@code null} if the range has no glyph pixel
+     */
+    private static int[] locate(float[] plane, float[] columns, int width, int height, int left, int right) {
+        double mass = 0;
+        double moment = 0;
+        for (int x = left; x < right; x++) {
+            mass += columns[x];
+            moment += columns[x] * x;
+        }
+        if (mass <= 0) {
+            return null;
+        }
+        int cx = (int) Math.round(moment / mass);
+        mass = 0;
+        moment = 0;
+        for (int y = 0; y < height; y++) {
+            for (int x = left; x < right; x++) {
+                mass += plane[y * width + x];
+                moment += plane[y * width + x] * y;
+            }
+        }
+        return new int[] {cx, (int) Math.round(moment / mass)};
+    }
+
+}
@@ -0,0 +1,31 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.util.function.IntFunction;
+
+/**
+ * The {@code SpatialRecogniser} calculates the convolution of the
+ * {@link ConvolutionMask} directly on the quantified captcha, the result is
+ * the same as {@link ConvolutionMask#convolution(BufferedImage)}.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+public final class SpatialRecogniser extends DigitRecogniser {
+
+    @Override
+    protected IntFunction<float[]> prepare(BufferedImage image) {
+        int width = image.getWidth();
+        int height = image.getHeight();
+        float[] plane = ConvolutionMask.quantify(image);
+        return digit -> {
+            float[] max = new float[2];
+            // use the most matching mask rotation for that digit
+            for (ConvolutionMask mask : ConvolutionMask.getMasks(digit)) {
+                mask.maximise(plane, width, height, max);
+            }
+            return max;
+        };
+    }
+
+}
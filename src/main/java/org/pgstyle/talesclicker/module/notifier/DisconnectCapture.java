@@ -1,14 +1,9 @@
 package org.pgstyle.talesclicker.module.notifier;
 
-import java.awt.Color;
-import java.awt.Point;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
-import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import javax.imageio.ImageIO;
 
@@ -16,6 +11,7 @@ import org.pgstyle.talesclicker.application.AppUtils;
 import org.pgstyle.talesclicker.application.Application;
 import org.pgstyle.talesclicker.application.Application.Level;
 import org.pgstyle.talesclicker.imagedb.Capture;
+import org.pgstyle.talesclicker.imagedb.ColourHistogram;
 import org.pgstyle.talesclicker.imagedb.Stencil;
 
 /**
@@ -30,17 +26,17 @@ public final class DisconnectCapture extends Capture {
     private static final Pattern LOADABLE = Pattern.compile("/imagedb/disconnect-.*\\.png");
     
     /** All disconnect dialog candidate for testing the capture. */
-    private static final List<Map<Point, Color>> TEXTS = DisconnectCapture.loadTexts();
+    private static final Stencil[] TEXTS = DisconnectCapture.loadTexts();
 
 
-    private static List<Map<Point, Color>> loadTexts() {
+    private static Stencil[] loadTexts() {
         return AppUtils.getResources("/imagedb")
                        .filter(s -> DisconnectCapture.LOADABLE.matcher(s).matches())
                        .map(name -> {
                            try {
                                // all candidates are loaded under the imagedb resources with a
                                // name of disconnect-{number}.png
-                               return Stencil.fromImage(ImageIO.read(AppUtils.getResource(name)));
+                               return Stencil.fromImage(ImageIO.read(AppUtils.getResource(name))).withTolerance(6f / 256).ranked(ColourHistogram.samples());
                            } catch (IllegalArgumentException e) {
                                // not found
                            } catch (IOException e) {
@@ -50,7 +46,7 @@ public final class DisconnectCapture extends Capture {
                            return null;
                        })
                        .filter(Objects::nonNull)
-                       .collect(Collectors.toList());
+                       .toArray(Stencil[]::new);
     }
 
     /**
@@ -74,8 +70,8 @@ public final class DisconnectCapture extends Capture {
      *         otherwise
      */
     public boolean isDisconnected() {
-        // check all candidates
-        return DisconnectCapture.TEXTS.stream().map(pc -> this.getPointsOffset(pc, 6f / 256)).anyMatch(Objects::nonNull);
+        // check all candidates in a single pass
+        return !this.getPointsOffsets(DisconnectCapture.TEXTS).isEmpty();
     }
 
 }
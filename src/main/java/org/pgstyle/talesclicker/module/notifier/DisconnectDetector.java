@@ -1,21 +1,46 @@
 package org.pgstyle.talesclicker.module.notifier;
 
+import java.util.Objects;
+
 import org.pgstyle.talesclicker.action.Actions;
+import org.pgstyle.talesclicker.action.Frame;
+import org.pgstyle.talesclicker.action.FrameChange;
+import org.pgstyle.talesclicker.action.FrameGate;
 import org.pgstyle.talesclicker.application.AppUtils;
+import org.pgstyle.talesclicker.application.Application;
+import org.pgstyle.talesclicker.application.Application.Level;
 
 /**
  * This class is the modular scheme implementation of a disconnection detector,
  * it wraps around the original {@link DisconnectCapture} disconnection
- * detecting mechanism.
+ * detecting mechanism. The last result is kept if the screen is unchanged
+ * since the last detection.
  *
  * @since 1.0
  * @author PGKan
  */
 public final class DisconnectDetector implements Detector {
 
+    private FrameGate gate;
+    private boolean disconnected;
+
     @Override
     public boolean detect() {
-        return DisconnectCapture.fromImage(Actions.getCapturer().capture()).isDisconnected();
+        if (Objects.isNull(this.gate)) {
+            this.gate = Actions.getFrameBus().gate();
+        }
+        Frame frame = Actions.getFrameBus().frame();
+        try {
+            FrameChange change = this.gate.check(frame);
+            if (change.isUnchanged()) {
+                Application.log(Level.TRACE, "screen unchanged, keep last detection, %s", change);
+                return this.disconnected;
+            }
+            this.disconnected = DisconnectCapture.fromImage(frame.getImage()).isDisconnected();
+            return this.disconnected;
+        } finally {
+            frame.release();
+        }
     }
 
     @Override
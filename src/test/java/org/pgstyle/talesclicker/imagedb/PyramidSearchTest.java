@@ -0,0 +1,67 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the pyramid search with the sequential search on the screenshot
+ * samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+class PyramidSearchTest {
+
+    /**
+     * Create a stencil of some points of another stencil, a stencil of few or
+     * sparse points has phases without key point on the level.
+     *
+     * @param stencil the stencil
+     * @param selected the test of the index of a point to be kept
+     * @return the stencil of the selected points
+     */
+    private static Stencil subset(Stencil stencil, IntPredicate selected) {
+        Map<Point, Color> points = new HashMap<>();
+        for (int i = 0; i < stencil.size(); i++) {
+            if (selected.test(i)) {
+                points.put(new Point(stencil.getX(i), stencil.getY(i)), new Color(stencil.getColour(i)));
+            }
+        }
+        return Stencil.of(points).withTolerance(stencil.getTolerance()).ranked(ColourHistogram.samples());
+    }
+
+    @Test
+    void matchesSequentialSearch() throws IOException {
+        Map<String, Stencil> stencils = ScreenSamples.stencils();
+        Stencil captcha = Stencil.CAPTCHA_STENCIL;
+        for (int size : new int[] {1, 4, 16, 64}) {
+            stencils.put("captcha " + size + " points", PyramidSearchTest.subset(captcha, i -> i < size));
+        }
+        // the points on even coordinates only fall onto a quarter of the
+        // phases of a level
+        stencils.put("captcha even points", PyramidSearchTest.subset(captcha, i -> Math.floorMod(captcha.getX(i), 2) == 0 && Math.floorMod(captcha.getY(i), 2) == 0));
+        int hits = 0;
+        for (File file : ScreenSamples.screenshots()) {
+            PixelView view = PixelView.of(ScreenSamples.read(file));
+            for (Map.Entry<String, Stencil> stencil : stencils.entrySet()) {
+                Point expected = StencilMatcher.find(view, stencil.getValue(), 0, 0, view.getWidth(), view.getHeight());
+                Point actual = PyramidSearch.find(view, stencil.getValue());
+                assertEquals(expected, actual, stencil.getKey() + " in " + file.getName());
+                hits += Objects.nonNull(actual) ? 1 : 0;
+            }
+        }
+        assertTrue(hits > 0, "no stencil found in the screenshots");
+    }
+
+}
@@ -0,0 +1,75 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.imageio.ImageIO;
+
+import org.pgstyle.talesclicker.application.AppUtils;
+
+/**
+ * The screenshots under the {@code imagedb} directory of the project (or the
+ * directory in the system property {@code test.imagedb}), and the stencils
+ * searched in the screenshots by the modules.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class ScreenSamples {
+
+    /**
+     * List the screenshot files, the screenshots are read one at a time to
+     * keep the memory of the tests small.
+     *
+     * @return the screenshot files, in the order of the name
+     * @throws IllegalStateException if there is no screenshot
+     */
+    static List<File> screenshots() {
+        File directory = new File(System.getProperty("test.imagedb", "imagedb"));
+        File[] files = directory.listFiles((d, name) -> name.endsWith(".png"));
+        if (Objects.isNull(files) || files.length == 0) {
+            throw new IllegalStateException("no screenshot in " + directory.getAbsolutePath());
+        }
+        Arrays.sort(files);
+        return Arrays.asList(files);
+    }
+
+    /**
+     * Read a screenshot.
+     *
+     * @param file the screenshot file
+     * @return the screenshot
+     * @throws IOException if failed to read the screenshot
+     */
+    static BufferedImage read(File file) throws IOException {
+        return ImageIO.read(file);
+    }
+
+    /**
+     * Load the stencils of the dialogs, the pin pad buttons and the
+     * disconnection texts, with the same tolerance as the modules.
+     *
+     * @return the stencils keyed by the name
+     * @throws IOException if failed to read a stencil image
+     */
+    static Map<String, Stencil> stencils() throws IOException {
+        Map<String, Stencil> stencils = new LinkedHashMap<>();
+        stencils.put("captcha", Stencil.CAPTCHA_STENCIL);
+        stencils.put("error", Stencil.ERROR_STENCIL);
+        for (String name : AppUtils.getResources("/imagedb").filter(s -> s.matches("/imagedb/(button|disconnect)-\\d+\\.png")).sorted().collect(Collectors.toList())) {
+            BufferedImage image = ImageIO.read(AppUtils.getResource(name));
+            stencils.put(name.substring(name.lastIndexOf('/') + 1), Stencil.fromImage(image).withTolerance(6f / 256).ranked(ColourHistogram.samples()));
+        }
+        return stencils;
+    }
+
+    private ScreenSamples() {}
+
+}
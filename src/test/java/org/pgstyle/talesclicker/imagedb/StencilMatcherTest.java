@@ -0,0 +1,103 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Color;
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.Objects;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the compiled stencil matcher with the per-pixel matcher of the
+ * point references on the screenshot samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+class StencilMatcherTest {
+
+    /**
+     * The per-pixel matcher of the point references, comparing every point
+     * with {@link Capture#colourDifferent(Color, Color)}.
+     *
+     * @param image the screenshot
+     * @param stencil the stencil
+     * @return the first offset of the stencil; or {@code null} if not found
+     */
+    private static Point reference(BufferedImage image, Stencil stencil) {
+        Color[] colours = new Color[stencil.size()];
+        for (int i = 0; i < colours.length; i++) {
+            colours[i] = new Color(stencil.getColour(i));
+        }
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                boolean hit = true;
+                for (int i = 0; i < colours.length && hit; i++) {
+                    int px = x + stencil.getX(i);
+                    int py = y + stencil.getY(i);
+                    hit = px >= 0 && py >= 0 && px < image.getWidth() && py < image.getHeight()
+                          && !(Capture.colourDifferent(colours[i], new Color(image.getRGB(px, py))) > stencil.getTolerance());
+                }
+                if (hit) {
+                    return new Point(x, y);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Search the stencils in a search mode, and compare the offsets with the
+     * sequential search.
+     *
+     * @param mode the search mode
+     * @throws IOException if failed to read a sample
+     */
+    private static void assertSameAsSequential(Search.Mode mode) throws IOException {
+        Map<String, Stencil> stencils = ScreenSamples.stencils();
+        int hits = 0;
+        for (File file : ScreenSamples.screenshots()) {
+            PixelView view = PixelView.of(ScreenSamples.read(file));
+            for (Map.Entry<String, Stencil> stencil : stencils.entrySet()) {
+                Point expected = StencilMatcher.find(view, stencil.getValue(), 0, 0, view.getWidth(), view.getHeight());
+                Point actual = StencilMatcher.find(view, stencil.getValue(), mode);
+                assertEquals(expected, actual, mode + " search of " + stencil.getKey() + " in " + file.getName());
+                hits += Objects.nonNull(actual) ? 1 : 0;
+            }
+        }
+        assertTrue(hits > 0, "no stencil found in the screenshots");
+    }
+
+    @Test
+    void matchesPerPixelMatcher() throws IOException {
+        Map<String, Stencil> stencils = ScreenSamples.stencils();
+        // the channel tolerance is converted from the colour difference
+        // tolerance, check the edges of the conversion as well
+        stencils.put("captcha exact", Stencil.CAPTCHA_STENCIL.withTolerance(0f));
+        stencils.put("captcha loose", Stencil.CAPTCHA_STENCIL.withTolerance(0.1f));
+        int hits = 0;
+        for (File file : ScreenSamples.screenshots()) {
+            BufferedImage image = ScreenSamples.read(file);
+            PixelView view = PixelView.of(image);
+            for (Map.Entry<String, Stencil> stencil : stencils.entrySet()) {
+                Point expected = StencilMatcherTest.reference(image, stencil.getValue());
+                Point actual = StencilMatcher.find(view, stencil.getValue(), 0, 0, view.getWidth(), view.getHeight());
+                assertEquals(expected, actual, stencil.getKey() + " in " + file.getName());
+                hits += Objects.nonNull(actual) ? 1 : 0;
+            }
+        }
+        assertTrue(hits > 0, "no stencil found in the screenshots");
+    }
+
+    @Test
+    void parallelSearchMatchesSequentialSearch() throws IOException {
+        StencilMatcherTest.assertSameAsSequential(Search.Mode.PARALLEL);
+    }
+
+}
@@ -0,0 +1,61 @@
+package org.pgstyle.talesclicker.imagedb;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the single pass scan of several stencils with the sequential search
+ * of each stencil on the screenshot samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+class StencilScannerTest {
+
+    /**
+     * Scan all stencils together in a search mode, and compare the offsets
+     * with the sequential search of each stencil.
+     *
+     * @param mode the search mode of the scan
+     * @throws IOException if failed to read a sample
+     */
+    private static void assertSameAsSequential(Search.Mode mode) throws IOException {
+        Collection<Stencil> stencils = ScreenSamples.stencils().values();
+        StencilScanner scanner = StencilScanner.of(stencils.toArray(new Stencil[0]));
+        int hits = 0;
+        for (File file : ScreenSamples.screenshots()) {
+            PixelView view = PixelView.of(ScreenSamples.read(file));
+            Map<Stencil, Point> scanned = scanner.scan(view, mode);
+            for (Stencil stencil : stencils) {
+                Point expected = StencilMatcher.find(view, stencil, 0, 0, view.getWidth(), view.getHeight());
+                assertEquals(expected, scanned.get(stencil), mode + " scan in " + file.getName());
+            }
+            hits += scanned.size();
+        }
+        assertTrue(hits > 0, "no stencil found in the screenshots");
+    }
+
+    @Test
+    void sequentialScanMatchesSequentialSearch() throws IOException {
+        StencilScannerTest.assertSameAsSequential(Search.Mode.SEQUENTIAL);
+    }
+
+    @Test
+    void parallelScanMatchesSequentialSearch() throws IOException {
+        StencilScannerTest.assertSameAsSequential(Search.Mode.PARALLEL);
+    }
+
+    @Test
+    void pyramidScanMatchesSequentialSearch() throws IOException {
+        StencilScannerTest.assertSameAsSequential(Search.Mode.PYRAMID);
+    }
+
+}
@@ -0,0 +1,60 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.Point;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.imageio.ImageIO;
+
+import org.junit.jupiter.api.Test;
+import org.pgstyle.talesclicker.action.Actions;
+import org.pgstyle.talesclicker.action.ReplayScreen;
+import org.pgstyle.talesclicker.imagedb.OffsetTracker;
+
+/**
+ * Run the captcha module on a replayed captcha sample.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+class CaptchaModuleTest {
+
+    @Test
+    void recheckKeepsTrackedOffset() throws IOException {
+        BufferedImage image = ImageIO.read(new File(System.getProperty("test.imagedb", "imagedb"), "4,7.png"));
+        ReplayScreen screen = ReplayScreen.of(Arrays.asList(image));
+        Actions.install(screen);
+        CaptchaModule module = new CaptchaModule();
+        assertTrue(module.initialise(null, new String[0]));
+        try {
+            // the full search solves the dialog and remembers its bounds
+            module.execute();
+            assertFalse(screen.getClicks().isEmpty(), "full search did not solve the captcha");
+            Point offset = FullCapture.fromImage(image).findOffset();
+            assertNotNull(offset);
+            screen.clear();
+
+            // the recheck solves the dialog from the capture of its bounds
+            long misses = OffsetTracker.getMisses();
+            module.execute();
+            assertFalse(screen.getClicks().isEmpty(), "recheck did not solve the captcha");
+            assertEquals(misses, OffsetTracker.getMisses(), "recheck scanned for a stencil");
+
+            // the next full search still finds the dialog at its tracked offset
+            long hits = OffsetTracker.getHits();
+            assertEquals(offset, FullCapture.fromImage(image).findOffset());
+            assertEquals(hits + 1, OffsetTracker.getHits(), "tracked offset moved by the recheck");
+            assertEquals(misses, OffsetTracker.getMisses(), "tracked offset moved by the recheck");
+        } finally {
+            module.finalise(null);
+        }
+    }
+
+}
@@ -0,0 +1,79 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import javax.imageio.ImageIO;
+
+/**
+ * The labelled captcha samples under the {@code imagedb} directory of the
+ * project (or the directory in the system property {@code test.imagedb}), the
+ * name of a sample is the captcha digits separated with a comma.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+final class CaptchaSamples {
+
+    /**
+     * Load the captcha images of the samples.
+     *
+     * @return the captcha images keyed by the sample name, in the order of
+     *         the name
+     * @throws IOException if failed to read a sample
+     * @throws IllegalStateException if there is no sample or no captcha
+     *                               dialog in a sample
+     */
+    static Map<String, BufferedImage> load() throws IOException {
+        File directory = new File(System.getProperty("test.imagedb", "imagedb"));
+        File[] files = directory.listFiles((d, name) -> name.matches("\\d,\\d\\.png"));
+        if (Objects.isNull(files) || files.length == 0) {
+            throw new IllegalStateException("no captcha sample in " + directory.getAbsolutePath());
+        }
+        Arrays.sort(files);
+        Map<String, BufferedImage> samples = new LinkedHashMap<>();
+        for (File file : files) {
+            FullCapture full = FullCapture.fromImage(ImageIO.read(file));
+            if (Objects.isNull(full.findOffset())) {
+                throw new IllegalStateException("no captcha dialog in " + file.getName());
+            }
+            samples.put(file.getName(), full.getCaptchaCapture().getImage());
+        }
+        return samples;
+    }
+
+    /**
+     * Get the captcha digits of a sample.
+     *
+     * @param name the name of the sample
+     * @return the digits
+     */
+    static int[] label(String name) {
+        return new int[] {name.charAt(0) - '0', name.charAt(2) - '0'};
+    }
+
+    /**
+     * Get the most confident digit of a digit position, the lower digit wins
+     * a tie.
+     *
+     * @param confidents the confident values of the digits
+     * @return the digit
+     */
+    static int digit(float[] confidents) {
+        int best = 0;
+        for (int d = 1; d < confidents.length; d++) {
+            if (confidents[d] > confidents[best]) {
+                best = d;
+            }
+        }
+        return best;
+    }
+
+    private CaptchaSamples() {}
+
+}
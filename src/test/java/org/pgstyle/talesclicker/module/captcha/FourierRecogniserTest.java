@@ -0,0 +1,41 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the FFT convolution with the spatial convolution on the labelled
+ * captcha samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+class FourierRecogniserTest {
+
+    /** Greatest accepted confident difference of the two engines. */
+    private static final float TOLERANCE = 1e-4f;
+
+    @Test
+    void agreesWithSpatialConvolution() throws IOException {
+        FourierRecogniser fourier = new FourierRecogniser();
+        SpatialRecogniser spatial = new SpatialRecogniser();
+        for (Map.Entry<String, BufferedImage> sample : CaptchaSamples.load().entrySet()) {
+            float[][] expected = spatial.recognise(sample.getValue());
+            float[][] actual = fourier.recognise(sample.getValue());
+            assertEquals(expected.length, actual.length, sample.getKey());
+            for (int i = 0; i < expected.length; i++) {
+                for (int d = 0; d < expected[i].length; d++) {
+                    assertEquals(expected[i][d], actual[i][d], FourierRecogniserTest.TOLERANCE,
+                                 sample.getKey() + " position " + i + " digit " + d);
+                }
+                assertEquals(CaptchaSamples.digit(expected[i]), CaptchaSamples.digit(actual[i]), sample.getKey() + " position " + i);
+            }
+        }
+    }
+
+}
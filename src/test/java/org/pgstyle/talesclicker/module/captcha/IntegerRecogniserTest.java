@@ -0,0 +1,51 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the int8 quantised convolution with the float convolution on the
+ * labelled captcha samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+class IntegerRecogniserTest {
+
+    /** The measured confident difference documented by the recogniser. */
+    private static final float TOLERANCE = 0.002f;
+
+    @Test
+    void keepsAccuracyOfFloatConvolution() throws IOException {
+        IntegerRecogniser integer = new IntegerRecogniser();
+        SpatialRecogniser spatial = new SpatialRecogniser();
+        int digits = 0;
+        int floatCorrect = 0;
+        int integerCorrect = 0;
+        for (Map.Entry<String, BufferedImage> sample : CaptchaSamples.load().entrySet()) {
+            int[] label = CaptchaSamples.label(sample.getKey());
+            float[][] expected = spatial.recognise(sample.getValue());
+            float[][] actual = integer.recognise(sample.getValue());
+            assertEquals(label.length, actual.length, sample.getKey());
+            for (int i = 0; i < label.length; i++) {
+                for (int d = 0; d < expected[i].length; d++) {
+                    assertEquals(expected[i][d], actual[i][d], IntegerRecogniserTest.TOLERANCE,
+                                 sample.getKey() + " position " + i + " digit " + d);
+                }
+                digits++;
+                floatCorrect += CaptchaSamples.digit(expected[i]) == label[i] ? 1 : 0;
+                integerCorrect += CaptchaSamples.digit(actual[i]) == label[i] ? 1 : 0;
+            }
+        }
+        assertTrue(integerCorrect >= floatCorrect,
+                   "int8 read " + integerCorrect + " of " + digits + " digits, float read " + floatCorrect);
+        assertEquals(digits, integerCorrect, "int8 misread a labelled digit");
+    }
+
+}
@@ -0,0 +1,33 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the pruned convolution with the exhaustive spatial convolution on
+ * the labelled captcha samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+class PrunedRecogniserTest {
+
+    @Test
+    void equalsExhaustiveConvolution() throws IOException {
+        PrunedRecogniser pruned = new PrunedRecogniser();
+        SpatialRecogniser spatial = new SpatialRecogniser();
+        for (Map.Entry<String, BufferedImage> sample : CaptchaSamples.load().entrySet()) {
+            float[][] expected = spatial.recognise(sample.getValue());
+            float[][] actual = pruned.recognise(sample.getValue());
+            assertTrue(Arrays.deepEquals(expected, actual),
+                       sample.getKey() + " expected " + Arrays.deepToString(expected) + " but was " + Arrays.deepToString(actual));
+        }
+    }
+
+}
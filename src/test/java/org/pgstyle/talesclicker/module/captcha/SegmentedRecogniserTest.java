@@ -0,0 +1,51 @@
+package org.pgstyle.talesclicker.module.captcha;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compare the convolution around the located glyphs with the full convolution
+ * on the labelled captcha samples.
+ *
+ * @since 1.1
+ * @author PGKan
+ */
+class SegmentedRecogniserTest {
+
+    @Test
+    void keepsAccuracyOfFullConvolution() throws IOException {
+        SegmentedRecogniser segmented = new SegmentedRecogniser();
+        SpatialRecogniser spatial = new SpatialRecogniser();
+        int digits = 0;
+        int fullCorrect = 0;
+        int segmentedCorrect = 0;
+        for (Map.Entry<String, BufferedImage> sample : CaptchaSamples.load().entrySet()) {
+            int[] label = CaptchaSamples.label(sample.getKey());
+            float[][] expected = spatial.recognise(sample.getValue());
+            float[][] actual = segmented.recognise(sample.getValue());
+            assertEquals(label.length, actual.length, sample.getKey());
+            for (int i = 0; i < label.length; i++) {
+                for (int d = 0; d < expected[i].length; d++) {
+                    // the windows around the glyph are a part of all windows
+                    assertTrue(actual[i][d] <= expected[i][d], sample.getKey() + " position " + i + " digit " + d);
+                }
+                // the best window of the read digit is around the glyph
+                int digit = CaptchaSamples.digit(actual[i]);
+                assertEquals(expected[i][digit], actual[i][digit], sample.getKey() + " position " + i);
+                digits++;
+                fullCorrect += CaptchaSamples.digit(expected[i]) == label[i] ? 1 : 0;
+                segmentedCorrect += digit == label[i] ? 1 : 0;
+            }
+        }
+        assertTrue(segmentedCorrect >= fullCorrect,
+                   "segmented read " + segmentedCorrect + " of " + digits + " digits, full read " + fullCorrect);
+        assertEquals(digits, segmentedCorrect, "segmented misread a labelled digit");
+    }
+
+}